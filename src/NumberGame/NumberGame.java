@@ -1,5 +1,6 @@
 package NumberGame;
 
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -7,9 +8,17 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
+import score.Leaderboard;
+import score.ScoreJournal;
+import score.ScoreRecord;
+import util.GameRandom;
+import util.GameStats;
+import util.GameStats.Counter;
 
 public final class NumberGame{
 
@@ -22,14 +31,14 @@ public final class NumberGame{
 
     private final Button[][] gridButtons = new Button[GRID_ROWS][GRID_COLUMNS];
     private final List<Integer> randomNumbers = new ArrayList<>();
+    private final RandomGenerator random = GameRandom.newSession();
     private int currentIndex = 0;
 
     private final Label nextNumberLabel = new Label();
     private int lastPlacedNumber = -1;
 
-    private int gamesPlayed = 0;
-    private int gamesWon = 0;
-    private int totalSuccessfulPlacements = 0;
+    // Readable from any thread; the FX thread is the only writer
+    private final GameStats stats = GameStats.shared().newSession();
 
     private Button quitButton; // Quit button to remain visible even when the game is over
 
@@ -72,7 +81,6 @@ public final class NumberGame{
 
 
     private void generateRandomNumbers() {
-        Random random = new Random();
         randomNumbers.clear();
         for (int i = 0; i < TOTAL_NUMBERS; i++) {
             randomNumbers.add(random.nextInt(1000) + 1);
@@ -114,7 +122,7 @@ public final class NumberGame{
         button.setText(String.valueOf(currentNumber));
         lastPlacedNumber = currentNumber;
         currentIndex++;
-        totalSuccessfulPlacements++;
+        stats.increment(Counter.NUMBER_PLACEMENTS);
 
         if (currentIndex >= TOTAL_NUMBERS) {
             showGameOver(true);
@@ -141,10 +149,12 @@ public final class NumberGame{
     }
 
     private void showGameOver(boolean won) {
-        gamesPlayed++;
+        stats.increment(Counter.NUMBER_GAMES_PLAYED);
         if (won) {
-            gamesWon++;
+            stats.increment(Counter.NUMBER_GAMES_WON);
         }
+        Label topScoresLabel = new Label("Top scores: loading...");
+        saveScore(won, topScoresLabel);
 
         // Create the Game Over popup with VBox layout
         VBox gameOverLayout = new VBox(10);
@@ -161,16 +171,44 @@ public final class NumberGame{
         quitButton = new Button("Quit");
         quitButton.setOnAction(event -> quitGame());
 
-        gameOverLayout.getChildren().addAll(gameOverLabel, scoreSummaryLabel, playAgainButton, quitButton);
+        gameOverLayout.getChildren().addAll(gameOverLabel, scoreSummaryLabel, topScoresLabel, playAgainButton, quitButton);
 
         // Create the new scene with the VBox containing the game over content
-        Scene gameOverScene = new Scene(gameOverLayout, 400, 300);
+        Scene gameOverScene = new Scene(gameOverLayout, 400, 500);
 
         // Hide current game and show game over scene
         primaryStage.setScene(gameOverScene);
         primaryStage.show();
     }
 
+    /**
+     * Saves the score of the game just played and shows the best scores once they are known.
+     * The first save reads the whole score log, so it runs off the JavaFX Application Thread.
+     * @param won whether the game was won
+     * @param topScoresLabel the label that shows the best scores, this one included
+     */
+    private void saveScore(boolean won, Label topScoresLabel) {
+        ScoreRecord record = ScoreRecord.number(LocalDateTime.now(), 1, won ? 1 : 0, currentIndex);
+        Task<List<ScoreRecord>> save = new Task<>() {
+            @Override
+            protected List<ScoreRecord> call() throws IOException {
+                // Loaded first, so the leaderboard receives this score as it is appended
+                Leaderboard leaderboard = Leaderboard.shared();
+                ScoreJournal.shared().append(record);
+                return leaderboard.top(ScoreRecord.Game.NUMBER);
+            }
+        };
+        // Both handlers run on the JavaFX Application Thread
+        save.setOnSucceeded(event -> topScoresLabel.setText(getTopScores(save.getValue())));
+        save.setOnFailed(event -> {
+            System.err.println("Error saving score: " + save.getException().getMessage());
+            topScoresLabel.setText("Top scores unavailable");
+        });
+        Thread thread = new Thread(save, "number-game-score");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     private void resetGame() {
         // Reset game state
         for (int row = 0; row < GRID_ROWS; row++) {
@@ -192,7 +230,11 @@ public final class NumberGame{
     }
 
     private String getScoreSummary() {
-        int gamesLost = gamesPlayed - gamesWon;
+        GameStats.Snapshot totals = stats.snapshot();
+        long gamesPlayed = totals.get(Counter.NUMBER_GAMES_PLAYED);
+        long gamesWon = totals.get(Counter.NUMBER_GAMES_WON);
+        long totalSuccessfulPlacements = totals.get(Counter.NUMBER_PLACEMENTS);
+        long gamesLost = gamesPlayed - gamesWon;
         double averagePlacements = (double) totalSuccessfulPlacements / gamesPlayed;
 
         return "Games played: " + gamesPlayed +
@@ -201,6 +243,16 @@ public final class NumberGame{
                "\nTotal placements: " + totalSuccessfulPlacements +
                "\nAverage placements per game: " + String.format("%.2f", averagePlacements);
     }
+
+    private String getTopScores(List<ScoreRecord> topScores) {
+        StringBuilder text = new StringBuilder("Top scores:");
+        for (int i = 0; i < topScores.size(); i++) {
+            ScoreRecord entry = topScores.get(i);
+            text.append('\n').append(i + 1).append(". ").append(entry.getTotalScore())
+                .append(" (").append(entry.getTime().toLocalDate()).append(')');
+        }
+        return text.toString();
+    }
     public void setInstance(NumberGame instance) {
         NumberGame.instance = instance;
     }
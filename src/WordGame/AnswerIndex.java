@@ -0,0 +1,252 @@
+package WordGame;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Normalized lookup keys for every answer in the catalog.
+ *
+ * Keys are built once at load: Unicode NFKD, accents stripped, apostrophes
+ * dropped, other punctuation folded to single spaces and lower-cased, plus
+ * the normalized forms of any known aliases.
+ */
+final class AnswerIndex
+{
+    /** Common alternative spellings, mapped to the name used in the shards. */
+    private static final Map<String, String> ALIASES = new HashMap<>();
+
+    static
+    {
+        alias("United States", "USA", "US", "America", "United States of America");
+        alias("United Kingdom", "UK", "Britain", "Great Britain");
+        alias("United Arab Emirates", "UAE");
+        alias("Congo, Democratic Republic of the", "Democratic Republic of the Congo", "DRC", "DR Congo");
+        alias("Congo, Republic of the", "Republic of the Congo", "Congo-Brazzaville");
+        alias("Eswatini (formerly Swaziland)", "Eswatini", "Swaziland");
+        alias("Czech Republic", "Czechia");
+        alias("East Timor", "Timor-Leste");
+        alias("Cabo Verde", "Cape Verde");
+        alias("Netherlands", "Holland", "The Netherlands");
+        alias("Turkey", "T\u00FCrkiye");
+        alias("Vatican City", "Vatican", "Holy See");
+        alias("Washington, D.C.", "Washington", "Washington DC");
+        alias("Kyiv", "Kiev");
+        alias("Astana", "Nur-Sultan");
+    }
+
+    private final Map<String, Country> countriesByKey;
+    private final Map<String, String[]> keysByAnswer;
+    private volatile String[] allKeys;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param expectedCountries the number of countries expected, used to pre-size the maps
+     */
+    AnswerIndex(final int expectedCountries)
+    {
+        countriesByKey = new HashMap<>(expectedCountries * 2);
+        keysByAnswer = new HashMap<>(expectedCountries * 4);
+    }
+
+    /**
+     * Indexes a country's name and capital.
+     *
+     * @param country the country to index
+     */
+    void add(final Country country)
+    {
+        for (final String key : register(country.getName()))
+        {
+            countriesByKey.put(key, country);
+        }
+        register(country.getCapitalCityName());
+    }
+
+    /**
+     * Finds a country by any spelling of its name.
+     *
+     * @param name the name as typed
+     * @return the country, or null if none matches
+     */
+    Country findCountry(final String name)
+    {
+        return countriesByKey.get(normalize(name));
+    }
+
+    /**
+     * Gets every normalized key accepted for an answer.
+     *
+     * @param answer the answer exactly as it appears in the catalog
+     * @return the accepted keys, the canonical one first
+     */
+    String[] keysFor(final String answer)
+    {
+        final String[] keys = keysByAnswer.get(answer);
+        return keys != null ? keys : new String[] {normalize(answer)};
+    }
+
+    /**
+     * Gets every key in the index, for telling a typo apart from another answer.
+     *
+     * @return the distinct keys of every name, capital and alias
+     */
+    String[] allKeys()
+    {
+        String[] keys = allKeys;
+        if (keys == null)
+        {
+            // Racing callers build equal arrays, so either may win
+            final Set<String> distinct = new LinkedHashSet<>(keysByAnswer.size() * 2);
+            for (final String[] answerKeys : keysByAnswer.values())
+            {
+                Collections.addAll(distinct, answerKeys);
+            }
+            keys = distinct.toArray(new String[0]);
+            allKeys = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Computes and stores the keys for an answer.
+     *
+     * @param answer the answer exactly as it appears in the catalog
+     * @return the keys for the answer
+     */
+    private String[] register(final String answer)
+    {
+        String[] keys = keysByAnswer.get(answer);
+        if (keys == null)
+        {
+            final List<String> list = new ArrayList<>(2);
+            list.add(normalize(answer));
+            for (final Map.Entry<String, String> alias : ALIASES.entrySet())
+            {
+                if (alias.getValue().equals(answer) && !list.contains(alias.getKey()))
+                {
+                    list.add(alias.getKey());
+                }
+            }
+            keys = list.toArray(new String[0]);
+            keysByAnswer.put(answer, keys);
+            allKeys = null;
+        }
+        return keys;
+    }
+
+    /**
+     * Records aliases for a canonical answer.
+     *
+     * @param canonical the answer as it appears in the shards
+     * @param aliases   the alternative spellings
+     */
+    private static void alias(final String canonical, final String... aliases)
+    {
+        for (final String alias : aliases)
+        {
+            ALIASES.put(normalize(alias), canonical);
+        }
+    }
+
+    /**
+     * Normalizes text into a lookup key.
+     *
+     * @param text the raw text
+     * @return the normalized key
+     */
+    static String normalize(final String text)
+    {
+        final StringBuilder key = new StringBuilder(text.length());
+        normalize(text, key);
+        return key.toString();
+    }
+
+    /**
+     * Normalizes text into a reusable buffer. Plain ASCII input, the common
+     * case for typed guesses, is folded without allocating.
+     *
+     * @param text the raw text
+     * @param key  the buffer that receives the key; it is cleared first
+     */
+    static void normalize(final String text, final StringBuilder key)
+    {
+        key.setLength(0);
+        CharSequence source = text;
+        for (int i = 0; i < text.length(); i++)
+        {
+            if (text.charAt(i) > 0x7F)
+            {
+                source = Normalizer.normalize(text, Normalizer.Form.NFKD);
+                break;
+            }
+        }
+
+        boolean pendingSpace = false;
+        for (int i = 0; i < source.length(); i++)
+        {
+            final char c = source.charAt(i);
+            // ASCII, nearly all of every fact, is classified without the Unicode tables
+            final boolean ascii = c < 0x80;
+            if (ascii ? c == '\'' || c == '`' : isMark(c) || isApostrophe(c))
+            {
+                continue;
+            }
+            if (ascii ? isAsciiLetterOrDigit(c) : Character.isLetterOrDigit(c))
+            {
+                if (pendingSpace && key.length() > 0)
+                {
+                    key.append(' ');
+                }
+                pendingSpace = false;
+                key.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : Character.toLowerCase(c));
+            }
+            else
+            {
+                pendingSpace = true;
+            }
+        }
+    }
+
+    /**
+     * Tells whether an ASCII character is a letter or digit.
+     *
+     * @param c the character, below 0x80
+     * @return true for A-Z, a-z and 0-9
+     */
+    private static boolean isAsciiLetterOrDigit(final char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Tells whether a character is a combining mark such as an accent.
+     *
+     * @param c the character
+     * @return true for non-spacing, spacing and enclosing marks
+     */
+    private static boolean isMark(final char c)
+    {
+        final int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    /**
+     * Tells whether a character is an apostrophe or accent used as one.
+     *
+     * @param c the character
+     * @return true for the apostrophe variants
+     */
+    private static boolean isApostrophe(final char c)
+    {
+        return c == '\'' || c == '\u2019' || c == '\u2018' || c == '`' || c == '\u00B4' || c == '\u02BC';
+    }
+}
@@ -0,0 +1,193 @@
+package WordGame;
+
+/**
+ * Checks guesses against indexed answer keys, tolerating small typos.
+ *
+ * A typo is only forgiven when it is closer to the expected answer than to
+ * any other answer in the index, so one real name is never accepted as a
+ * misspelling of another, such as Gambia for Zambia.
+ *
+ * A matcher reuses its buffers between guesses, so each quiz session owns
+ * one and uses it from a single thread.
+ */
+final class AnswerMatcher
+{
+    private final String[] allKeys;
+    private final StringBuilder guessKey = new StringBuilder(64);
+    private int[] previous = new int[64];
+    private int[] current = new int[64];
+
+    /**
+     * Creates a matcher.
+     *
+     * @param allKeys every key in the answer index, which a typo must not be as close to
+     */
+    AnswerMatcher(final String[] allKeys)
+    {
+        this.allKeys = allKeys;
+    }
+
+    /**
+     * Checks a guess against the accepted keys of an answer.
+     *
+     * @param guess the player's answer
+     * @param keys  the accepted normalized keys
+     * @return true if the guess is a key, or within the typo allowance of a
+     *         key and strictly closer to it than to any other answer
+     */
+    boolean matches(final String guess, final String[] keys)
+    {
+        if (guess == null)
+        {
+            return false;
+        }
+
+        AnswerIndex.normalize(guess, guessKey);
+        if (guessKey.length() == 0)
+        {
+            return false;
+        }
+
+        int best = Integer.MAX_VALUE;
+        for (final String key : keys)
+        {
+            final int limit = maxDistance(key.length());
+            final int distance = distance(guessKey, key, Math.min(limit, best - 1));
+            if (distance == 0)
+            {
+                return true;
+            }
+            if (distance <= limit)
+            {
+                best = Math.min(best, distance);
+            }
+        }
+        return best != Integer.MAX_VALUE && !nearOtherKey(keys, best);
+    }
+
+    /**
+     * Tells whether the guess is within a distance of a key that belongs to
+     * another answer.
+     *
+     * @param keys  the keys of the expected answer, which are skipped
+     * @param limit the distance of the guess from the expected answer
+     * @return true if another answer is at least as close
+     */
+    private boolean nearOtherKey(final String[] keys, final int limit)
+    {
+        for (final String other : allKeys)
+        {
+            if (Math.abs(other.length() - guessKey.length()) <= limit
+                    && !contains(keys, other)
+                    && distance(guessKey, other, limit) <= limit)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether an array holds a key.
+     *
+     * @param keys the keys
+     * @param key  the key to look for
+     * @return true if it is one of them
+     */
+    private static boolean contains(final String[] keys, final String key)
+    {
+        for (final String k : keys)
+        {
+            if (k.equals(key))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of edits tolerated for a key of the given length.
+     *
+     * @param length the key length
+     * @return the allowed edit distance
+     */
+    static int maxDistance(final int length)
+    {
+        if (length <= 4)
+        {
+            return 0;
+        }
+        return length <= 8 ? 1 : 2;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings up to a limit,
+     * filling only the diagonal band of width 2 * limit + 1 and stopping
+     * early once every cell in a row exceeds the limit.
+     *
+     * @param a     the first string
+     * @param b     the second string
+     * @param limit the largest distance of interest
+     * @return the distance, or limit + 1 if it is larger than limit
+     */
+    int distance(final CharSequence a, final CharSequence b, final int limit)
+    {
+        final int la = a.length();
+        final int lb = b.length();
+        final int outside = limit + 1;
+        if (limit < 0 || Math.abs(la - lb) > limit)
+        {
+            return outside;
+        }
+        if (limit == 0)
+        {
+            return b.toString().contentEquals(a) ? 0 : outside;
+        }
+
+        if (previous.length <= lb)
+        {
+            previous = new int[lb + 1];
+            current = new int[lb + 1];
+        }
+
+        int[] prev = previous;
+        int[] cur = current;
+        for (int j = 0; j <= lb; j++)
+        {
+            prev[j] = j <= limit ? j : outside;
+        }
+
+        for (int i = 1; i <= la; i++)
+        {
+            final int lo = Math.max(1, i - limit);
+            final int hi = Math.min(lb, i + limit);
+            cur[lo - 1] = lo == 1 && i <= limit ? i : outside;
+            int rowMin = cur[lo - 1];
+
+            final char ca = a.charAt(i - 1);
+            for (int j = lo; j <= hi; j++)
+            {
+                final int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = prev[j - 1] + cost;
+                value = Math.min(value, prev[j] + 1);
+                value = Math.min(value, cur[j - 1] + 1);
+                cur[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (hi < lb)
+            {
+                cur[hi + 1] = outside;
+            }
+            if (rowMin > limit)
+            {
+                return outside;
+            }
+
+            final int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[lb];
+    }
+}
@@ -0,0 +1,81 @@
+package WordGame;
+
+/**
+ * Checks the answer matcher against the loaded world: typos and aliases that
+ * must be accepted, and real names that must not pass as typos of each other.
+ */
+public final class AnswerMatcherDriver
+{
+    /** Guesses paired with the answer they must be accepted for. */
+    private static final String[][] ACCEPTED =
+    {
+        {"zambia", "Zambia"},
+        {"Zambi", "Zambia"},
+        {"Australa", "Australia"},
+        {"Irelnd", "Ireland"},
+        {"nort korea", "North Korea"},
+        {"Kingstn", "Kingston"},
+        {"bosnia and herzegovnia", "Bosnia and Herzegovina"},
+        {"USA", "United States"},
+        {"Kiev", "Kyiv"},
+    };
+
+    /** Guesses paired with the answer they must be rejected for. */
+    private static final String[][] REJECTED =
+    {
+        {"Gambia", "Zambia"},
+        {"Zambia", "Gambia"},
+        {"Austria", "Australia"},
+        {"Australia", "Austria"},
+        {"Iceland", "Ireland"},
+        {"Ireland", "Iceland"},
+        {"South Korea", "North Korea"},
+        {"North Korea", "South Korea"},
+        {"Panama", "Manama"},
+        {"Manama", "Panama"},
+        {"Kingstown", "Kingston"},
+        {"Kingston", "Kingstown"},
+    };
+
+    private AnswerMatcherDriver()
+    {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args unused
+     */
+    public static void main(final String[] args)
+    {
+        final World world = WorldRepository.get();
+        final AnswerMatcher matcher = new AnswerMatcher(world.getAllAnswerKeys());
+        int failures = check(world, matcher, ACCEPTED, true);
+        failures += check(world, matcher, REJECTED, false);
+        System.out.printf("%d cases, %d failed%n", ACCEPTED.length + REJECTED.length, failures);
+    }
+
+    /**
+     * Checks guesses against their answers and prints each one that fails.
+     *
+     * @param world    the world holding the answer keys
+     * @param matcher  the matcher under test
+     * @param cases    guess and answer pairs
+     * @param expected whether the guesses should match
+     * @return the number of failures
+     */
+    private static int check(final World world, final AnswerMatcher matcher, final String[][] cases,
+                             final boolean expected)
+    {
+        int failures = 0;
+        for (final String[] c : cases)
+        {
+            if (matcher.matches(c[0], world.getAnswerKeys(c[1])) != expected)
+            {
+                System.out.println((expected ? "rejected " : "accepted ") + c[0] + " for " + c[1]);
+                failures++;
+            }
+        }
+        return failures;
+    }
+}
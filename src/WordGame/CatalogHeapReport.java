@@ -0,0 +1,78 @@
+package WordGame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estimates the heap retained by one loaded catalog, with and without the
+ * string pool, by holding many copies and measuring used heap after GC.
+ */
+public final class CatalogHeapReport
+{
+    private CatalogHeapReport()
+    {
+    }
+
+    /**
+     * Prints the retained heap per catalog for both representations.
+     *
+     * @param args optionally the number of copies held per measurement
+     */
+    public static void main(final String[] args)
+    {
+        final int copies = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        final long unpooled = retainedPerCatalog(copies, false);
+        final long pooled = retainedPerCatalog(copies, true);
+        System.out.printf("Retained heap per catalog: %,d bytes without pool, %,d bytes with pool (%.1f%% less)%n",
+                unpooled, pooled, 100.0 * (unpooled - pooled) / unpooled);
+    }
+
+    /**
+     * Loads the catalog repeatedly and measures the heap the copies retain.
+     *
+     * @param copies the number of catalogs to hold at once
+     * @param pooled whether strings are deduplicated through a pool
+     * @return the average retained bytes per catalog
+     */
+    private static long retainedPerCatalog(final int copies, final boolean pooled)
+    {
+        final List<World> worlds = new ArrayList<>(copies);
+        final long before = usedHeap();
+        for (int i = 0; i < copies; i++)
+        {
+            final StringPool pool = pooled ? StringPool.create() : StringPool.disabled();
+            worlds.add(CountryCatalogLoader.loadDirectory(CountryCatalogLoader.DEFAULT_DIRECTORY, pool).getWorld());
+        }
+        final long after = usedHeap();
+        if (worlds.isEmpty())
+        {
+            return 0;
+        }
+        return (after - before) / worlds.size();
+    }
+
+    /**
+     * Measures used heap after asking the collector to settle.
+     *
+     * @return the used heap in bytes
+     */
+    private static long usedHeap()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++)
+        {
+            System.gc();
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,7 +1,10 @@
 package WordGame;
 
+import java.util.Arrays;
+
 /**
  * Represents a country with its name, capital city, and an array of facts.
+ * Instances are immutable; use getFact and factCount to read facts without copying.
  */
 public final class Country 
 {
@@ -52,6 +55,27 @@ public final class Country
         return capitalCityName;
     }
 
+    /**
+     * Gets one fact about the country without copying the facts array.
+     *
+     * @param index the fact number, from 0 to factCount() - 1
+     * @return the fact
+     */
+    public String getFact(final int index) 
+    {
+        return facts[index];
+    }
+
+    /**
+     * Gets the number of facts about the country.
+     *
+     * @return the number of facts
+     */
+    public int factCount() 
+    {
+        return facts.length;
+    }
+
     /**
      * Gets the array of facts about the country.
      *
@@ -61,4 +85,33 @@ public final class Country
     {
         return facts.clone();
     }
+
+    @Override
+    public boolean equals(final Object other) 
+    {
+        if (this == other) 
+        {
+            return true;
+        }
+        if (!(other instanceof Country)) 
+        {
+            return false;
+        }
+        final Country that = (Country) other;
+        return name.equals(that.name)
+                && capitalCityName.equals(that.capitalCityName)
+                && Arrays.equals(facts, that.facts);
+    }
+
+    @Override
+    public int hashCode() 
+    {
+        return 31 * (31 * name.hashCode() + capitalCityName.hashCode()) + Arrays.hashCode(facts);
+    }
+
+    @Override
+    public String toString() 
+    {
+        return name + ":" + capitalCityName;
+    }
 }
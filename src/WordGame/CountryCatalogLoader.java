@@ -0,0 +1,372 @@
+package WordGame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Loads the country catalog from the a.txt to z.txt shards in parallel.
+ */
+public final class CountryCatalogLoader
+{
+    /** The directory holding the country shards. */
+    public static final Path DEFAULT_DIRECTORY = Paths.get("src", "WordGame", "Countries");
+
+    /** The zip archive holding the same shards as the directory. */
+    public static final Path DEFAULT_ZIP = Paths.get("src", "WordGame", "Countries.zip");
+
+    /** The letters naming each shard, in merge order. */
+    private static final String SHARD_LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    /** The upper bound on loader threads. */
+    private static final int MAX_THREADS = 8;
+
+    private CountryCatalogLoader()
+    {
+    }
+
+    /**
+     * Loads the catalog from a shard directory or, if that is missing, a zip of the shards.
+     *
+     * @param directory the shard directory
+     * @param zip       the zip archive used when the directory does not exist
+     * @return the load result
+     */
+    public static Result load(final Path directory, final Path zip)
+    {
+        if (!Files.isDirectory(directory) && Files.isRegularFile(zip))
+        {
+            return loadZip(zip);
+        }
+        return loadDirectory(directory);
+    }
+
+    /**
+     * Loads every shard in the given directory into a new World.
+     *
+     * @param directory the directory containing a.txt to z.txt
+     * @return the load result
+     */
+    public static Result loadDirectory(final Path directory)
+    {
+        return loadDirectory(directory, StringPool.create());
+    }
+
+    /**
+     * Loads every shard in the given directory, deduplicating strings through a pool.
+     *
+     * @param directory the directory containing a.txt to z.txt
+     * @param pool      the catalog's string pool
+     * @return the load result
+     */
+    static Result loadDirectory(final Path directory, final StringPool pool)
+    {
+        final long start = System.nanoTime();
+        final List<Path> shards = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+
+        for (final char letter : SHARD_LETTERS.toCharArray())
+        {
+            final Path shard = directory.resolve(letter + ".txt");
+            if (Files.isRegularFile(shard))
+            {
+                shards.add(shard);
+            }
+            else
+            {
+                errors.add(shard.getFileName() + ": file does not exist");
+            }
+        }
+
+        final List<String> names = new ArrayList<>(shards.size());
+        final List<Callable<Shard>> tasks = new ArrayList<>(shards.size());
+        for (final Path shard : shards)
+        {
+            names.add(shard.getFileName().toString());
+            tasks.add(() -> parseShard(shard, pool));
+        }
+        return merge(parseAll(names, tasks), errors, start);
+    }
+
+    /**
+     * Loads every .txt entry of a zip archive into a new World, streaming
+     * each entry straight into the parser without extracting it.
+     * Entries are merged in name order, matching the directory load.
+     *
+     * @param zip the zip archive of shards
+     * @return the load result
+     */
+    public static Result loadZip(final Path zip)
+    {
+        final StringPool pool = StringPool.create();
+        final long start = System.nanoTime();
+        final List<String> errors = new ArrayList<>();
+
+        try (ZipFile archive = new ZipFile(zip.toFile(), StandardCharsets.UTF_8))
+        {
+            final List<ZipEntry> entries = new ArrayList<>();
+            archive.stream()
+                   .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".txt"))
+                   .forEach(entries::add);
+            entries.sort(Comparator.comparing(CountryCatalogLoader::entryFileName));
+
+            final List<String> names = new ArrayList<>(entries.size());
+            final List<Callable<Shard>> tasks = new ArrayList<>(entries.size());
+            for (final ZipEntry entry : entries)
+            {
+                names.add(entryFileName(entry));
+                tasks.add(() -> parseEntry(archive, entry, pool));
+            }
+            return merge(parseAll(names, tasks), errors, start);
+        }
+        catch (IOException e)
+        {
+            errors.add(zip.getFileName() + ": error opening archive: " + e.getMessage());
+            return merge(new ArrayList<>(), errors, start);
+        }
+    }
+
+    /**
+     * Gets the file name of a zip entry without its folder.
+     *
+     * @param entry the zip entry
+     * @return the part of the entry name after the last slash
+     */
+    private static String entryFileName(final ZipEntry entry)
+    {
+        final String name = entry.getName();
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Parses each shard on a bounded pool, keeping results in shard order.
+     *
+     * @param names the shard names, used for errors from failed tasks
+     * @param tasks one parsing task per shard
+     * @return one parsed shard per task, in the same order
+     */
+    private static List<Shard> parseAll(final List<String> names, final List<Callable<Shard>> tasks)
+    {
+        final List<Shard> parsed = new ArrayList<>(tasks.size());
+        if (tasks.isEmpty())
+        {
+            return parsed;
+        }
+
+        final int threads = Math.min(tasks.size(),
+                Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            final Thread thread = new Thread(runnable, "country-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try
+        {
+            final List<Future<Shard>> futures = new ArrayList<>(tasks.size());
+            for (final Callable<Shard> task : tasks)
+            {
+                futures.add(executor.submit(task));
+            }
+            for (int i = 0; i < futures.size(); i++)
+            {
+                parsed.add(await(futures.get(i), names.get(i)));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return parsed;
+    }
+
+    /**
+     * Reads a single shard file.
+     *
+     * @param file the shard file
+     * @param pool the catalog's string pool
+     * @return the parsed shard
+     */
+    private static Shard parseShard(final Path file, final StringPool pool)
+    {
+        final Shard shard = new Shard(file.getFileName().toString());
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            CountryRecordParser.parse(reader, shard.name, pool, shard.countries, shard.errors);
+        }
+        catch (IOException e)
+        {
+            shard.errors.add(shard.name + ": error loading file: " + e.getMessage());
+        }
+        return shard;
+    }
+
+    /**
+     * Reads a single shard entry from a zip archive.
+     *
+     * @param archive the open archive
+     * @param entry   the shard entry
+     * @param pool    the catalog's string pool
+     * @return the parsed shard
+     */
+    private static Shard parseEntry(final ZipFile archive, final ZipEntry entry, final StringPool pool)
+    {
+        final Shard shard = new Shard(entryFileName(entry));
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(archive.getInputStream(entry), StandardCharsets.UTF_8)))
+        {
+            CountryRecordParser.parse(reader, shard.name, pool, shard.countries, shard.errors);
+        }
+        catch (IOException e)
+        {
+            shard.errors.add(shard.name + ": error reading entry: " + e.getMessage());
+        }
+        return shard;
+    }
+
+    /**
+     * Waits for a parsed shard, turning a failed task into a shard error.
+     *
+     * @param future    the pending shard
+     * @param shardName the shard name used in error messages
+     * @return the parsed shard
+     */
+    private static Shard await(final Future<Shard> future, final String shardName)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            final Shard shard = new Shard(shardName);
+            shard.errors.add(shardName + ": load interrupted");
+            return shard;
+        }
+        catch (ExecutionException e)
+        {
+            final Shard shard = new Shard(shardName);
+            shard.errors.add(shardName + ": " + e.getCause());
+            return shard;
+        }
+    }
+
+    /**
+     * Merges parsed shards into a World in shard order.
+     *
+     * @param shards the parsed shards
+     * @param errors the errors gathered before parsing
+     * @param start  the System.nanoTime() at which loading began
+     * @return the load result
+     */
+    static Result merge(final List<Shard> shards, final List<String> errors, final long start)
+    {
+        int total = 0;
+        for (final Shard shard : shards)
+        {
+            total += shard.countries.size();
+        }
+
+        final World world = new World(total);
+        for (final Shard shard : shards)
+        {
+            for (final Country country : shard.countries)
+            {
+                world.addCountry(country);
+            }
+            errors.addAll(shard.errors);
+        }
+        return new Result(world, System.nanoTime() - start, errors);
+    }
+
+    /**
+     * The countries and errors produced by one shard.
+     */
+    static final class Shard
+    {
+        final String name;
+        final List<Country> countries = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+
+        Shard(final String name)
+        {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The outcome of loading the catalog.
+     */
+    public static final class Result
+    {
+        private final World world;
+        private final long loadTimeNanos;
+        private final List<String> errors;
+
+        Result(final World world, final long loadTimeNanos, final List<String> errors)
+        {
+            this.world = world;
+            this.loadTimeNanos = loadTimeNanos;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * Gets the loaded world.
+         *
+         * @return the world
+         */
+        public World getWorld()
+        {
+            return world;
+        }
+
+        /**
+         * Gets the wall-clock time the load took.
+         *
+         * @return the load time in nanoseconds
+         */
+        public long getLoadTimeNanos()
+        {
+            return loadTimeNanos;
+        }
+
+        /**
+         * Gets the per-shard errors, each prefixed with its shard name.
+         *
+         * @return the errors, empty if every shard loaded cleanly
+         */
+        public List<String> getErrors()
+        {
+            return errors;
+        }
+
+        /**
+         * Prints any shard errors. The load time is left to the measurement
+         * mains, through {@link #getLoadTimeNanos()}.
+         */
+        public void reportErrors()
+        {
+            for (final String error : errors)
+            {
+                System.err.println(error);
+            }
+        }
+    }
+}
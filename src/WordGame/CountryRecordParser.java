@@ -0,0 +1,112 @@
+package WordGame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Strict streaming parser for a single country shard.
+ *
+ * A shard is a sequence of records separated by one or more blank lines.
+ * Each record is exactly one "Country:Capital" header followed by exactly
+ * three fact lines. A malformed record is reported and skipped up to the
+ * next blank line, so a fact line is never mistaken for a header.
+ */
+final class CountryRecordParser
+{
+    /** The number of fact lines every record must contain. */
+    static final int FACTS_PER_COUNTRY = 3;
+
+    private CountryRecordParser()
+    {
+    }
+
+    /**
+     * Parses every record in the given reader.
+     *
+     * @param reader    the reader positioned at the start of the shard
+     * @param shardName the shard name used in error messages
+     * @param pool      the pool that deduplicates every string kept
+     * @param countries the list that receives each valid country
+     * @param errors    the list that receives a message for each skipped record
+     * @throws IOException if the reader fails
+     */
+    static void parse(final BufferedReader reader,
+                      final String shardName,
+                      final StringPool pool,
+                      final List<Country> countries,
+                      final List<String> errors) throws IOException
+    {
+        final String[] facts = new String[FACTS_PER_COUNTRY];
+        String name = null;
+        String capital = null;
+        int factCount = 0;
+        int headerLine = 0;
+        boolean skipping = false;
+        int lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null)
+        {
+            lineNumber++;
+            line = line.trim();
+
+            if (line.isEmpty())
+            {
+                // A blank line closes the current record, complete or not
+                if (name != null && factCount != FACTS_PER_COUNTRY)
+                {
+                    errors.add(shardName + ":" + headerLine + ": record for " + name
+                            + " has " + factCount + " facts, expected " + FACTS_PER_COUNTRY);
+                }
+                name = null;
+                factCount = 0;
+                skipping = false;
+                continue;
+            }
+
+            if (skipping)
+            {
+                continue;
+            }
+
+            if (name == null)
+            {
+                final int colon = line.indexOf(':');
+                if (colon <= 0 || colon == line.length() - 1)
+                {
+                    errors.add(shardName + ":" + lineNumber + ": expected Country:Capital header but found \"" + line + "\"");
+                    skipping = true;
+                    continue;
+                }
+                name = pool.intern(line.substring(0, colon).trim());
+                capital = pool.intern(line.substring(colon + 1).trim());
+                headerLine = lineNumber;
+                continue;
+            }
+
+            if (factCount == FACTS_PER_COUNTRY)
+            {
+                errors.add(shardName + ":" + lineNumber + ": record for " + name
+                        + " has more than " + FACTS_PER_COUNTRY + " facts");
+                countries.remove(countries.size() - 1);
+                name = null;
+                skipping = true;
+                continue;
+            }
+
+            facts[factCount++] = pool.intern(line);
+            if (factCount == FACTS_PER_COUNTRY)
+            {
+                // Publish now; an unexpected fourth line retracts it above
+                countries.add(new Country(name, capital, facts));
+            }
+        }
+
+        if (name != null && factCount != FACTS_PER_COUNTRY)
+        {
+            errors.add(shardName + ":" + headerLine + ": record for " + name
+                    + " has " + factCount + " facts, expected " + FACTS_PER_COUNTRY);
+        }
+    }
+}
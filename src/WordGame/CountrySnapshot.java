@@ -0,0 +1,254 @@
+package WordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the text shards into a binary snapshot and loads it back.
+ *
+ * Layout, big-endian:
+ * <pre>
+ * int    magic "CTRY"
+ * int    format version
+ * long   fingerprint of the shards it was compiled from
+ * int    string count S
+ * int    country count C
+ * int    string data length B
+ * int[S + 1] byte offset of each string in the data, plus the end offset
+ * byte[B]    UTF-8 string data
+ * int[C * 5] name, capital and three fact string indexes per country
+ * </pre>
+ */
+public final class CountrySnapshot
+{
+    /** The default location of the compiled snapshot. */
+    public static final Path DEFAULT_FILE = Paths.get("src", "WordGame", "Countries.snapshot");
+
+    /** The ASCII bytes "CTRY". */
+    private static final int MAGIC = 0x43545259;
+
+    /** Bumped whenever the layout changes; older snapshots are ignored. */
+    private static final int VERSION = 1;
+
+    /** The number of string indexes stored per country. */
+    private static final int RECORD_WIDTH = 2 + CountryRecordParser.FACTS_PER_COUNTRY;
+
+    /** The size of the fixed header in bytes. */
+    private static final int HEADER_BYTES = 28;
+
+    private CountrySnapshot()
+    {
+    }
+
+    /**
+     * Compiles the shards in a directory into a snapshot file.
+     *
+     * @param directory the shard directory
+     * @param snapshot  the snapshot file to write
+     * @return the text load result the snapshot was built from
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static CountryCatalogLoader.Result compile(final Path directory, final Path snapshot) throws IOException
+    {
+        final long fingerprint = WorldRepository.fingerprint(directory);
+        final CountryCatalogLoader.Result result = CountryCatalogLoader.loadDirectory(directory);
+        final List<Country> countries = result.getWorld().getCountries();
+
+        // Deduplicate strings into the table as records are laid out
+        final Map<String, Integer> indexes = new HashMap<>();
+        final List<byte[]> strings = new ArrayList<>();
+        final int[] records = new int[countries.size() * RECORD_WIDTH];
+        int dataLength = 0;
+        int slot = 0;
+
+        for (final Country country : countries)
+        {
+            final String[] fields = {country.getName(), country.getCapitalCityName(),
+                country.getFact(0), country.getFact(1), country.getFact(2)};
+            for (final String field : fields)
+            {
+                Integer index = indexes.get(field);
+                if (index == null)
+                {
+                    final byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                    index = strings.size();
+                    indexes.put(field, index);
+                    strings.add(bytes);
+                    dataLength += bytes.length;
+                }
+                records[slot++] = index;
+            }
+        }
+
+        final int size = HEADER_BYTES + (strings.size() + 1) * Integer.BYTES + dataLength + records.length * Integer.BYTES;
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC)
+              .putInt(VERSION)
+              .putLong(fingerprint)
+              .putInt(strings.size())
+              .putInt(countries.size())
+              .putInt(dataLength);
+
+        int offset = 0;
+        for (final byte[] bytes : strings)
+        {
+            buffer.putInt(offset);
+            offset += bytes.length;
+        }
+        buffer.putInt(offset);
+        for (final byte[] bytes : strings)
+        {
+            buffer.put(bytes);
+        }
+        for (final int index : records)
+        {
+            buffer.putInt(index);
+        }
+
+        // Write beside the target and move into place so readers never see a partial file
+        final Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return result;
+    }
+
+    /**
+     * Loads a snapshot if it exists and matches the shards it was built from.
+     * When the shard directory is absent the snapshot is trusted as is.
+     *
+     * @param snapshot  the snapshot file
+     * @param directory the shard directory it was compiled from
+     * @return the load result, or null if the snapshot is missing, stale or unreadable
+     */
+    public static CountryCatalogLoader.Result load(final Path snapshot, final Path directory)
+    {
+        final long start = System.nanoTime();
+        if (!Files.isRegularFile(snapshot))
+        {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ))
+        {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            {
+                return null;
+            }
+
+            final long fingerprint = buffer.getLong();
+            if (Files.isDirectory(directory) && fingerprint != WorldRepository.fingerprint(directory))
+            {
+                return null;
+            }
+
+            final int stringCount = buffer.getInt();
+            final int countryCount = buffer.getInt();
+            final int dataLength = buffer.getInt();
+            final int dataStart = HEADER_BYTES + (stringCount + 1) * Integer.BYTES;
+            final int recordStart = dataStart + dataLength;
+            if (stringCount < 0 || countryCount < 0 || dataLength < 0
+                    || (long) recordStart + (long) countryCount * RECORD_WIDTH * Integer.BYTES != buffer.capacity())
+            {
+                return null;
+            }
+
+            final String[] strings = new String[stringCount];
+            byte[] scratch = new byte[0];
+            int offset = buffer.getInt(HEADER_BYTES);
+            for (int i = 0; i < stringCount; i++)
+            {
+                final int end = buffer.getInt(HEADER_BYTES + (i + 1) * Integer.BYTES);
+                final int length = end - offset;
+                if (length > scratch.length)
+                {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(dataStart + offset, scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                offset = end;
+            }
+
+            final World world = new World(countryCount);
+            final String[] facts = new String[CountryRecordParser.FACTS_PER_COUNTRY];
+            int position = recordStart;
+            for (int i = 0; i < countryCount; i++)
+            {
+                final String name = strings[buffer.getInt(position)];
+                final String capital = strings[buffer.getInt(position + Integer.BYTES)];
+                for (int f = 0; f < facts.length; f++)
+                {
+                    facts[f] = strings[buffer.getInt(position + (2 + f) * Integer.BYTES)];
+                }
+                world.addCountry(new Country(name, capital, facts));
+                position += RECORD_WIDTH * Integer.BYTES;
+            }
+            return new CountryCatalogLoader.Result(world, System.nanoTime() - start, new ArrayList<>());
+        }
+        catch (IOException | IndexOutOfBoundsException e)
+        {
+            System.err.println("Ignoring unreadable snapshot " + snapshot + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Compiles the default snapshot, then times repeated loads of the text
+     * shards against the snapshot. Each time includes the first lookup,
+     * which builds the World's indexes, as sealing the shared World does.
+     *
+     * @param args optionally the number of timed loads per source
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final int runs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        final Path directory = CountryCatalogLoader.DEFAULT_DIRECTORY;
+
+        compile(directory, DEFAULT_FILE);
+        System.out.println("Wrote " + DEFAULT_FILE + " (" + Files.size(DEFAULT_FILE) + " bytes)");
+
+        final long[] text = new long[runs];
+        final long[] binary = new long[runs];
+        for (int i = 0; i < runs; i++)
+        {
+            long start = System.nanoTime();
+            CountryCatalogLoader.loadDirectory(directory).getWorld().getAllAnswerKeys();
+            text[i] = System.nanoTime() - start;
+            start = System.nanoTime();
+            load(DEFAULT_FILE, directory).getWorld().getAllAnswerKeys();
+            binary[i] = System.nanoTime() - start;
+        }
+        printTimes("text shards", text);
+        printTimes("snapshot", binary);
+    }
+
+    /**
+     * Prints the first, median and best time of a series of loads.
+     *
+     * @param label the source being timed
+     * @param times the load times in nanoseconds, in run order
+     */
+    private static void printTimes(final String label, final long[] times)
+    {
+        final long first = times[0];
+        final long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-12s first %8.3f ms  median %8.3f ms  best %8.3f ms%n",
+                label, first / 1_000_000.0, sorted[sorted.length / 2] / 1_000_000.0, sorted[0] / 1_000_000.0);
+    }
+}
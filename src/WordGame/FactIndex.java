@@ -0,0 +1,181 @@
+package WordGame;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from normalized fact terms to the facts that contain them.
+ *
+ * A fact id is {@code countryIndex * FACTS_PER_COUNTRY + factIndex}, where
+ * countryIndex is the country's position in the World. Posting lists are
+ * primitive int arrays kept in ascending order.
+ */
+final class FactIndex
+{
+    /** Words too common to be worth indexing. */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "by", "for", "from", "has", "in", "is",
+            "it", "its", "of", "on", "one", "or", "s", "the", "to", "was", "with");
+
+    private static final int[] NO_FACTS = new int[0];
+
+    private final Map<String, Postings> postings;
+    private final StringBuilder text = new StringBuilder(256); // Reused while indexing
+
+    /**
+     * Creates an empty index.
+     *
+     * @param expectedCountries the number of countries expected, used to pre-size the map
+     */
+    FactIndex(final int expectedCountries)
+    {
+        // The catalog has about eight distinct terms per country; this fits them without a rehash
+        postings = new HashMap<>(expectedCountries * 16);
+    }
+
+    /**
+     * Indexes every fact of a country.
+     *
+     * @param countryIndex the country's position in the World
+     * @param country      the country
+     */
+    void add(final int countryIndex, final Country country)
+    {
+        for (int f = 0; f < country.factCount(); f++)
+        {
+            final int factId = countryIndex * CountryRecordParser.FACTS_PER_COUNTRY + f;
+            AnswerIndex.normalize(country.getFact(f), text);
+            int start = 0;
+            while (start < text.length())
+            {
+                int end = text.indexOf(" ", start);
+                if (end < 0)
+                {
+                    end = text.length();
+                }
+                final String term = text.substring(start, end);
+                if (!STOP_WORDS.contains(term))
+                {
+                    Postings list = postings.get(term);
+                    if (list == null)
+                    {
+                        list = new Postings();
+                        postings.put(term, list);
+                    }
+                    list.add(factId);
+                }
+                start = end + 1;
+            }
+        }
+    }
+
+    /**
+     * Discards the index and rebuilds it from the given countries.
+     *
+     * @param countries the countries in World order
+     */
+    void rebuild(final List<Country> countries)
+    {
+        postings.clear();
+        for (int i = 0; i < countries.size(); i++)
+        {
+            add(i, countries.get(i));
+        }
+    }
+
+    /**
+     * Finds the facts containing every term of a query.
+     *
+     * @param query one or more words; case, accents and punctuation are ignored
+     * @return the matching fact ids in ascending order
+     */
+    int[] find(final String query)
+    {
+        final String[] terms = AnswerIndex.normalize(query).split(" ");
+        int[] result = null;
+        int length = 0;
+
+        for (final String term : terms)
+        {
+            if (term.isEmpty() || (STOP_WORDS.contains(term) && terms.length > 1))
+            {
+                continue;
+            }
+            final Postings list = postings.get(term);
+            if (list == null)
+            {
+                return NO_FACTS;
+            }
+            if (result == null)
+            {
+                result = Arrays.copyOf(list.ids, list.size);
+                length = list.size;
+            }
+            else
+            {
+                length = intersect(result, length, list.ids, list.size);
+            }
+        }
+        return result == null ? NO_FACTS : Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Intersects two ascending id arrays into the first.
+     *
+     * @param into       the first array, overwritten with the intersection
+     * @param intoLength the number of ids used in the first array
+     * @param other      the second array
+     * @param otherLength the number of ids used in the second array
+     * @return the number of ids in the intersection
+     */
+    private static int intersect(final int[] into, final int intoLength, final int[] other, final int otherLength)
+    {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < intoLength && j < otherLength)
+        {
+            if (into[i] < other[j])
+            {
+                i++;
+            }
+            else if (into[i] > other[j])
+            {
+                j++;
+            }
+            else
+            {
+                into[k++] = into[i];
+                i++;
+                j++;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * A growable, ascending list of fact ids.
+     */
+    private static final class Postings
+    {
+        int[] ids = new int[4];
+        int size;
+
+        void add(final int factId)
+        {
+            // A term repeated within one fact is posted once
+            if (size > 0 && ids[size - 1] == factId)
+            {
+                return;
+            }
+            if (size == ids.length)
+            {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = factId;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package WordGame;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import util.GameRandom;
+
+/**
+ * Runs many headless quiz sessions at once against the shared world, one
+ * virtual thread per simulated player, and reports the throughput.
+ */
+public final class QuizLoadDriver
+{
+    private QuizLoadDriver()
+    {
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args optionally the number of simulated players
+     */
+    public static void main(final String[] args)
+    {
+        final int players = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        final World world = WorldRepository.get();
+        final LongAdder questions = new LongAdder();
+        final LongAdder correct = new LongAdder();
+        final long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < players; i++)
+            {
+                final GameRandom random = GameRandom.newSession();
+                executor.submit(() ->
+                {
+                    final QuizSession session = new QuizSession(world, random);
+                    // Simulated players know roughly half of the answers
+                    final QuizSession.Result result = session.play(question ->
+                            random.nextBoolean() ? question.getAnswer() : "?");
+                    questions.add(result.getCorrectFirstAttempt() + result.getCorrectSecondAttempt()
+                            + result.getIncorrectAttempts());
+                    correct.add(result.getCorrectFirstAttempt() + result.getCorrectSecondAttempt());
+                });
+            }
+        }
+
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d sessions, %d questions (%d correct) in %.3f s: %.0f sessions/s%n",
+                players, questions.sum(), correct.sum(), seconds, players / seconds);
+    }
+}
@@ -0,0 +1,381 @@
+package WordGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * One round of the geography quiz, independent of any console or UI.
+ *
+ * A session belongs to a single player and must be used from one thread at
+ * a time. Any number of sessions may share the same World concurrently.
+ */
+public final class QuizSession
+{
+    /** The number of questions in a round. */
+    public static final int QUESTIONS_PER_ROUND = 10;
+
+    /** The number of guesses allowed per question. */
+    public static final int MAX_ATTEMPTS = 2;
+
+    /**
+     * The kinds of question the quiz asks.
+     */
+    public enum QuestionType
+    {
+        CAPITAL_TO_COUNTRY,
+        COUNTRY_TO_CAPITAL,
+        FACT_TO_COUNTRY
+    }
+
+    /**
+     * The result of submitting a guess.
+     */
+    public enum Outcome
+    {
+        /** The guess was right on the first attempt. */
+        CORRECT_FIRST_ATTEMPT,
+        /** The guess was right on the second attempt. */
+        CORRECT_SECOND_ATTEMPT,
+        /** The guess was wrong and another attempt is allowed. */
+        TRY_AGAIN,
+        /** The guess was wrong and no attempts remain. */
+        INCORRECT;
+
+        /**
+         * Tells whether this outcome closes the current question.
+         *
+         * @return true unless another attempt is allowed
+         */
+        public boolean isFinal()
+        {
+            return this != TRY_AGAIN;
+        }
+    }
+
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+
+    private final World world;
+    private final RandomGenerator random;
+    private final AnswerMatcher matcher;
+    private final List<Country> countries;
+    private final List<String> themedFacts;
+    private int questionIndex;
+    private Question current;
+    private int attempts;
+    private int correctFirstAttempt;
+    private int correctSecondAttempt;
+    private int incorrectAttempts;
+
+    /**
+     * Starts a round of the standard length.
+     *
+     * @param world  the world to draw questions from
+     * @param random the random number generator for this session only
+     */
+    public QuizSession(final World world, final RandomGenerator random)
+    {
+        this(world, random, QUESTIONS_PER_ROUND);
+    }
+
+    /**
+     * Starts a round with the given number of questions.
+     *
+     * @param world     the world to draw questions from
+     * @param random    the random number generator for this session only
+     * @param questions the number of questions, capped at the number of countries
+     */
+    public QuizSession(final World world, final RandomGenerator random, final int questions)
+    {
+        this(world, random, world.sampleCountries(questions, random), null);
+    }
+
+    private QuizSession(final World world, final RandomGenerator random,
+                        final List<Country> countries, final List<String> themedFacts)
+    {
+        this.world = world;
+        this.random = random;
+        this.matcher = new AnswerMatcher(world.getAllAnswerKeys());
+        this.countries = countries;
+        this.themedFacts = themedFacts;
+    }
+
+    /**
+     * Starts a round of fact questions drawn only from facts mentioning a
+     * keyword, for example "UNESCO". Each country appears at most once.
+     *
+     * @param world   the world to draw questions from
+     * @param random  the random number generator for this session only
+     * @param keyword one or more words the facts must mention
+     * @return the session; it has fewer questions if few facts match
+     */
+    public static QuizSession themed(final World world, final RandomGenerator random, final String keyword)
+    {
+        final int[] factIds = world.findFacts(keyword);
+        final List<Country> countries = new ArrayList<>(QUESTIONS_PER_ROUND);
+        final List<String> facts = new ArrayList<>(QUESTIONS_PER_ROUND);
+
+        // Partial Fisher-Yates over the matching facts, skipping repeat countries
+        for (int i = 0; i < factIds.length && countries.size() < QUESTIONS_PER_ROUND; i++)
+        {
+            final int j = i + random.nextInt(factIds.length - i);
+            final int factId = factIds[j];
+            factIds[j] = factIds[i];
+            factIds[i] = factId;
+
+            final Country country = world.getCountryForFact(factId);
+            if (!countries.contains(country))
+            {
+                countries.add(country);
+                facts.add(world.getFact(factId));
+            }
+        }
+        return new QuizSession(world, random, countries, facts);
+    }
+
+    /**
+     * Gets the question to answer next.
+     * The same question is returned until it is answered or its attempts run out.
+     *
+     * @return the current question, or null once the round is finished
+     */
+    public Question nextQuestion()
+    {
+        if (current == null && questionIndex < countries.size())
+        {
+            current = createQuestion(countries.get(questionIndex));
+            attempts = 0;
+        }
+        return current;
+    }
+
+    /**
+     * Submits a guess for the current question.
+     *
+     * @param guess the player's answer
+     * @return the outcome of the guess
+     * @throws IllegalStateException if the round is already finished
+     */
+    public Outcome submitAnswer(final String guess)
+    {
+        final Question question = nextQuestion();
+        if (question == null)
+        {
+            throw new IllegalStateException("The round is finished.");
+        }
+
+        attempts++;
+        final Outcome outcome;
+        if (matcher.matches(guess, question.keys))
+        {
+            if (attempts == 1)
+            {
+                correctFirstAttempt++;
+                outcome = Outcome.CORRECT_FIRST_ATTEMPT;
+            }
+            else
+            {
+                correctSecondAttempt++;
+                outcome = Outcome.CORRECT_SECOND_ATTEMPT;
+            }
+        }
+        else if (attempts < MAX_ATTEMPTS)
+        {
+            return Outcome.TRY_AGAIN;
+        }
+        else
+        {
+            incorrectAttempts++;
+            outcome = Outcome.INCORRECT;
+        }
+
+        current = null;
+        questionIndex++;
+        return outcome;
+    }
+
+    /**
+     * Plays the whole round, asking the callback for every guess.
+     *
+     * @param answers supplies a guess for each question asked
+     * @return the result of the round
+     */
+    public Result play(final Function<Question, String> answers)
+    {
+        Question question;
+        while ((question = nextQuestion()) != null)
+        {
+            submitAnswer(answers.apply(question));
+        }
+        return getResult();
+    }
+
+    /**
+     * Tells whether every question has been closed.
+     *
+     * @return true once the round is finished
+     */
+    public boolean isFinished()
+    {
+        return questionIndex >= countries.size();
+    }
+
+    /**
+     * Gets the tally so far.
+     *
+     * @return the result of the questions closed so far
+     */
+    public Result getResult()
+    {
+        return new Result(correctFirstAttempt, correctSecondAttempt, incorrectAttempts);
+    }
+
+    /**
+     * Builds a question of a random type about a country.
+     *
+     * @param country the country the question is about
+     * @return the question
+     */
+    private Question createQuestion(final Country country)
+    {
+        if (themedFacts != null)
+        {
+            return new Question(QuestionType.FACT_TO_COUNTRY, country,
+                    "Which country does this describe: " + themedFacts.get(questionIndex),
+                    country.getName(), world.getAnswerKeys(country.getName()));
+        }
+
+        final QuestionType type = QUESTION_TYPES[random.nextInt(QUESTION_TYPES.length)];
+        switch (type)
+        {
+            case CAPITAL_TO_COUNTRY:
+                return new Question(type, country,
+                        "What country has the capital " + country.getCapitalCityName() + "?",
+                        country.getName(), world.getAnswerKeys(country.getName()));
+
+            case COUNTRY_TO_CAPITAL:
+                return new Question(type, country,
+                        "What is the capital of " + country.getName() + "?",
+                        country.getCapitalCityName(), world.getAnswerKeys(country.getCapitalCityName()));
+
+            case FACT_TO_COUNTRY:
+                final String fact = country.getFact(random.nextInt(country.factCount()));
+                return new Question(type, country,
+                        "Which country does this describe: " + fact,
+                        country.getName(), world.getAnswerKeys(country.getName()));
+
+            default:
+                throw new IllegalStateException("Unexpected question type: " + type);
+        }
+    }
+
+    /**
+     * A single quiz question.
+     */
+    public static final class Question
+    {
+        private final QuestionType type;
+        private final Country country;
+        private final String prompt;
+        private final String answer;
+        private final String[] keys;
+
+        private Question(final QuestionType type, final Country country, final String prompt,
+                         final String answer, final String[] keys)
+        {
+            this.type = type;
+            this.country = country;
+            this.prompt = prompt;
+            this.answer = answer;
+            this.keys = keys;
+        }
+
+        /**
+         * Gets the kind of question.
+         *
+         * @return the question type
+         */
+        public QuestionType getType()
+        {
+            return type;
+        }
+
+        /**
+         * Gets the country the question is about.
+         *
+         * @return the country
+         */
+        public Country getCountry()
+        {
+            return country;
+        }
+
+        /**
+         * Gets the text shown to the player.
+         *
+         * @return the prompt
+         */
+        public String getPrompt()
+        {
+            return prompt;
+        }
+
+        /**
+         * Gets the expected answer.
+         *
+         * @return the correct answer
+         */
+        public String getAnswer()
+        {
+            return answer;
+        }
+    }
+
+    /**
+     * The tally of a round.
+     */
+    public static final class Result
+    {
+        private final int correctFirstAttempt;
+        private final int correctSecondAttempt;
+        private final int incorrectAttempts;
+
+        private Result(final int correctFirstAttempt, final int correctSecondAttempt, final int incorrectAttempts)
+        {
+            this.correctFirstAttempt = correctFirstAttempt;
+            this.correctSecondAttempt = correctSecondAttempt;
+            this.incorrectAttempts = incorrectAttempts;
+        }
+
+        /**
+         * Gets the number of questions answered on the first attempt.
+         *
+         * @return the first-attempt count
+         */
+        public int getCorrectFirstAttempt()
+        {
+            return correctFirstAttempt;
+        }
+
+        /**
+         * Gets the number of questions answered on the second attempt.
+         *
+         * @return the second-attempt count
+         */
+        public int getCorrectSecondAttempt()
+        {
+            return correctSecondAttempt;
+        }
+
+        /**
+         * Gets the number of questions missed on both attempts.
+         *
+         * @return the incorrect count
+         */
+        public int getIncorrectAttempts()
+        {
+            return incorrectAttempts;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package WordGame;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalog-level string deduplication, so every repeated name, capital or
+ * fact in a load shares one String instance. Safe to use from the parallel
+ * shard readers.
+ */
+final class StringPool
+{
+    private final ConcurrentHashMap<String, String> strings;
+    private final boolean enabled;
+
+    private StringPool(final boolean enabled)
+    {
+        this.strings = new ConcurrentHashMap<>(enabled ? 1024 : 1);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Creates an empty pool.
+     *
+     * @return the new pool
+     */
+    static StringPool create()
+    {
+        return new StringPool(true);
+    }
+
+    /**
+     * Creates a pool that keeps every string as given, for comparisons.
+     *
+     * @return a pass-through pool
+     */
+    static StringPool disabled()
+    {
+        return new StringPool(false);
+    }
+
+    /**
+     * Gets the pooled instance equal to a string, adding it if new.
+     *
+     * @param value the string
+     * @return the shared instance
+     */
+    String intern(final String value)
+    {
+        if (!enabled)
+        {
+            return value;
+        }
+        final String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Gets the number of distinct strings pooled.
+     *
+     * @return the pool size
+     */
+    int size()
+    {
+        return strings.size();
+    }
+}
@@ -1,15 +1,16 @@
 package WordGame;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.util.List;
 import java.util.Scanner;
+import java.util.random.RandomGenerator;
+import score.Leaderboard;
+import score.ScoreJournal;
+import score.ScoreRecord;
+import util.GameRandom;
+import util.GameStats;
+import util.GameStats.Counter;
 
 /**
  * The WordGame class represents a trivia game about world geography.
@@ -17,94 +18,39 @@ import java.util.Scanner;
 public final class WordGame 
 {
     private final World world;
-    private int gamesPlayed;
-    private int correctFirstAttempt;
-    private int correctSecondAttempt;
-    private int incorrectAttempts;
+    private final RandomGenerator random;
+    private final GameStats stats = GameStats.shared().newSession();
 
     /**
-     * Constructs a WordGame and initializes the world.
+     * Constructs a WordGame using the shared world.
      */
     public WordGame() 
     {
-        world = new World();
-        loadCountries();
+        this(WorldRepository.get());
     }
 
     /**
-     * Loads country data from files named a.txt to z.txt.
+     * Constructs a WordGame over the given world.
+     *
+     * @param world the world to draw questions from
      */
-    private void loadCountries() 
+    public WordGame(final World world) 
     {
-        final String alphabet = "abcdefghijklmnopqrstuvwxyz";
-
-        for (final char letter : alphabet.toCharArray()) 
-        {
-            final String fileName = "src/WordGame/Countries/" + letter + ".txt";
-
-            // Check if the file exists before proceeding
-            File file = new File(fileName);
-            if (!file.exists()) 
-            {
-                System.err.println("File does not exist: " + fileName);
-                continue; // Skip this file if it doesn't exist
-            }
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) 
-            {
-                String line;
-
-                // Iterate through all lines in the file
-                while ((line = reader.readLine()) != null) 
-                {
-                    line = line.trim();
-
-                    // Skip empty lines
-                    if (line.isEmpty()) 
-                    {
-                        continue;
-                    }
-
-                    // Read the first line (country:capital)
-                    String countryAndCapital = line;
-                    if (!countryAndCapital.contains(":")) 
-                    {
-                        System.err.println("Invalid format in file: " + fileName + ". Skipping...");
-                        continue; // Skip this line if the format is invalid
-                    }
-
-                    // Split the country and capital
-                    final String[] parts = countryAndCapital.split(":", 2);
-                    final String name = parts[0].trim(); // Extract the country name
-                    final String capital = parts[1].trim(); // Extract the capital city
-
-                    // Read the next 3 facts, skipping any empty lines
-                    final String[] facts = new String[3];
-                    for (int i = 0; i < 3; i++) 
-                    {
-                        line = reader.readLine();
-                        if (line != null) 
-                        {
-                            facts[i] = line.trim(); // Trim each fact to remove extra spaces
-                        } 
-                        else 
-                        {
-                            facts[i] = "No fact available"; // Default value if no facts are available
-                        }
-                    }
-
-                    // Create a new Country object and add it to the world
-                    final Country country = new Country(name, capital, facts);
-                    world.addCountry(country);
-                }
-            } 
-            catch (IOException e) 
-            {
-                System.err.println("Error loading file: " + fileName + ". Skipping...");
-            }
-        }
+        this(world, GameRandom.newSession());
     }
 
+    /**
+     * Constructs a WordGame over the given world with its own random source,
+     * so rounds can be replayed from a seed.
+     *
+     * @param world  the world to draw questions from
+     * @param random the random number generator for this game only
+     */
+    public WordGame(final World world, final RandomGenerator random) 
+    {
+        this.world = world;
+        this.random = random;
+    }
 
     /**
      * Starts the WordGame.
@@ -133,93 +79,52 @@ public final class WordGame
      */
     private void playRound(final Scanner scanner) 
     {
-        int roundCorrectFirstAttempt = 0;
-        int roundCorrectSecondAttempt = 0;
-        int roundIncorrectAttempts = 0;
+        final QuizSession session = new QuizSession(world, random);
+        QuizSession.Question question;
+
         world.printAllCountries();
-        for (int i = 0; i < 10; i++) 
+        while ((question = session.nextQuestion()) != null) 
         {
-            final Country country = world.getRandomCountry();
-            final int questionType = new Random().nextInt(3);
-            boolean correct = false;
-
-            switch (questionType) 
-            {
-                case 0: // Capital -> Country
-                    System.out.println("What country has the capital " + country.getCapitalCityName() + "?");
-                    correct = askQuestion(scanner, country.getName());
-                    break;
-
-                case 1: // Country -> Capital
-                    System.out.println("What is the capital of " + country.getName() + "?");
-                    correct = askQuestion(scanner, country.getCapitalCityName());
-                    break;
-
-                case 2: // Fact -> Country
-                    final String fact = country.getFacts()[new Random().nextInt(3)];
-                    System.out.println("Which country does this describe: " + fact);
-                    correct = askQuestion(scanner, country.getName());
-                    break;
-
-                default:
-                    throw new IllegalStateException("Unexpected question type: " + questionType);
-            }
-
-            if (correct) 
-            {
-                if (i == 0) 
-                {
-                    roundCorrectFirstAttempt++;
-                } 
-                else 
-                {
-                    roundCorrectSecondAttempt++;
-                }
-            } 
-            else 
-            {
-                roundIncorrectAttempts++;
-            }
+            System.out.println(question.getPrompt());
+            askQuestion(scanner, session, question);
         }
 
-        gamesPlayed++;
-        correctFirstAttempt += roundCorrectFirstAttempt;
-        correctSecondAttempt += roundCorrectSecondAttempt;
-        incorrectAttempts += roundIncorrectAttempts;
-
-        System.out.println("- " + gamesPlayed + " word games played");
-        System.out.println("- " + correctFirstAttempt + " correct answers on the first attempt");
-        System.out.println("- " + correctSecondAttempt + " correct answers on the second attempt");
-        System.out.println("- " + incorrectAttempts + " incorrect answers on two attempts each");
+        final QuizSession.Result result = session.getResult();
+        stats.increment(Counter.WORD_GAMES_PLAYED);
+        stats.add(Counter.WORD_CORRECT_FIRST_ATTEMPT, result.getCorrectFirstAttempt());
+        stats.add(Counter.WORD_CORRECT_SECOND_ATTEMPT, result.getCorrectSecondAttempt());
+        stats.add(Counter.WORD_INCORRECT_ATTEMPTS, result.getIncorrectAttempts());
+
+        final GameStats.Snapshot totals = stats.snapshot();
+        System.out.println("- " + totals.get(Counter.WORD_GAMES_PLAYED) + " word games played");
+        System.out.println("- " + totals.get(Counter.WORD_CORRECT_FIRST_ATTEMPT) + " correct answers on the first attempt");
+        System.out.println("- " + totals.get(Counter.WORD_CORRECT_SECOND_ATTEMPT) + " correct answers on the second attempt");
+        System.out.println("- " + totals.get(Counter.WORD_INCORRECT_ATTEMPTS) + " incorrect answers on two attempts each");
     }
 
     /**
-     * Asks a question and checks the user's answer.
+     * Reads guesses from the console until the question is closed.
      *
-     * @param scanner the Scanner for user input
-     * @param correctAnswer the correct answer
-     * @return true if the user answers correctly within two guesses
+     * @param scanner  the Scanner for user input
+     * @param session  the session the question belongs to
+     * @param question the question being answered
      */
-    private boolean askQuestion(final Scanner scanner, final String correctAnswer) 
+    private void askQuestion(final Scanner scanner, final QuizSession session, final QuizSession.Question question) 
     {
-        for (int attempt = 1; attempt <= 2; attempt++) 
+        QuizSession.Outcome outcome;
+        do 
         {
             System.out.println("Your guess: ");
-            final String guess = scanner.nextLine().trim();
+            outcome = session.submitAnswer(scanner.nextLine().trim());
+            System.out.println(outcome == QuizSession.Outcome.CORRECT_FIRST_ATTEMPT 
+                    || outcome == QuizSession.Outcome.CORRECT_SECOND_ATTEMPT ? "CORRECT!" : "INCORRECT.");
+        } 
+        while (!outcome.isFinal());
 
-            if (guess.equalsIgnoreCase(correctAnswer)) 
-            {
-                System.out.println("CORRECT!");
-                return attempt == 1;
-            } 
-            else 
-            {
-                System.out.println("INCORRECT.");
-            }
+        if (outcome == QuizSession.Outcome.INCORRECT) 
+        {
+            System.out.println("The correct answer was: " + question.getAnswer());
         }
-
-        System.out.println("The correct answer was: " + correctAnswer);
-        return false;
     }
 
     /**
@@ -227,34 +132,42 @@ public final class WordGame
      */
     private void saveScore() 
     {
-        final LocalDateTime currentTime;
-        final DateTimeFormatter formatter;
-        final String formattedDateTime;
-        final int totalScore;
-        
-        currentTime = LocalDateTime.now();
-        formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        formattedDateTime = currentTime.format(formatter);
-        totalScore = correctFirstAttempt * 2 + correctSecondAttempt;
-        
-        final String scoreData = formattedDateTime + " | " +
-                                gamesPlayed + " word games played | " +
-                                correctFirstAttempt + " correct answers on the first attempt | " +
-                                correctSecondAttempt + " correct answers on the second attempt | " +
-                                incorrectAttempts + " incorrect answers on two attempts each | " +
-                                "Total Score: " + totalScore;
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("score.txt", true))) 
+        final GameStats.Snapshot totals = stats.snapshot();
+        final ScoreRecord record = ScoreRecord.word(LocalDateTime.now(),
+                (int) totals.get(Counter.WORD_GAMES_PLAYED),
+                (int) totals.get(Counter.WORD_CORRECT_FIRST_ATTEMPT),
+                (int) totals.get(Counter.WORD_CORRECT_SECOND_ATTEMPT),
+                (int) totals.get(Counter.WORD_INCORRECT_ATTEMPTS));
+
+        final Leaderboard leaderboard;
+        try 
         {
-            writer.write(scoreData);
-            writer.newLine();
+            // Loaded first, so the leaderboard receives this score as it is appended
+            leaderboard = Leaderboard.shared();
+            ScoreJournal.shared().append(record);
         } 
         catch (IOException e) 
         {
             System.err.println("Error saving score: " + e.getMessage());
+            return;
         }
 
-        // Print the final result
-        System.out.println("Your score has been saved!");
+        // The journal writes in the background and reports any failure to stderr
+        System.out.println("Your score has been queued for saving.");
+        printTopScores(leaderboard.top(ScoreRecord.Game.WORD));
+    }
+
+    /**
+     * Prints the best word game scores.
+     * @param top the scores, highest first
+     */
+    private void printTopScores(final List<ScoreRecord> top) 
+    {
+        System.out.println("Top scores:");
+        for (int i = 0; i < top.size(); i++) 
+        {
+            final ScoreRecord entry = top.get(i);
+            System.out.println((i + 1) + ". " + entry.getTotalScore() + " (" + entry.getTime().toLocalDate() + ")");
+        }
     }
 }
@@ -1,7 +1,11 @@
 package WordGame;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents the world containing a collection of countries.
@@ -11,12 +15,50 @@ public final class World
     /** A map of country names to their corresponding Country objects. */
     private final Map<String, Country> countries;
 
+    /** The same countries in insertion order, for constant-time random picks. */
+    private final List<Country> countryList;
+
+    /** The lookup indexes, built on first use and dropped whenever a country is added. */
+    private volatile Indexes indexes;
+
+    /** Whether the world rejects further changes. */
+    private boolean sealed;
+
+    /** The number of countries an empty World is sized for. */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /** The number of distinct first letters the letter index is sized for. */
+    private static final int LETTER_CAPACITY = 26;
+
     /**
      * Constructs an empty World object.
      */
     public World() 
     {
-        countries = new HashMap<>();
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty World sized so it does not rehash while the
+     * expected number of countries is added.
+     *
+     * @param expectedCountries the number of countries that will be added
+     */
+    public World(final int expectedCountries) 
+    {
+        countries = new HashMap<>(capacityFor(expectedCountries));
+        countryList = new ArrayList<>(expectedCountries);
+    }
+
+    /**
+     * Gets a HashMap capacity that holds the given entries without resizing.
+     *
+     * @param entries the number of entries
+     * @return the initial capacity
+     */
+    private static int capacityFor(final int entries) 
+    {
+        return (int) (entries / 0.75f) + 1;
     }
 
     /**
@@ -26,30 +68,280 @@ public final class World
      */
     public void addCountry(final Country country) 
     {
-        countries.put(country.getName(), country);
+        if (sealed) 
+        {
+            throw new IllegalStateException("World is sealed and cannot be modified.");
+        }
+        final Country previous = countries.put(country.getName(), country);
+        if (previous == null) 
+        {
+            countryList.add(country);
+        } 
+        else 
+        {
+            countryList.set(countryList.indexOf(previous), country);
+        }
+
+        // Normalizing and indexing every name and fact per country dominated
+        // bulk loads, so the indexes are rebuilt once, when next needed
+        indexes = null;
     }
 
     /**
-     * Retrieves a country by name.
+     * Gets the lookup indexes, building them from every country on first use.
+     *
+     * @return the indexes
+     */
+    private Indexes indexes() 
+    {
+        Indexes current = indexes;
+        if (current == null) 
+        {
+            synchronized (this) 
+            {
+                current = indexes;
+                if (current == null) 
+                {
+                    current = new Indexes(countryList);
+                    indexes = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the upper-case, unaccented first letter of a country's name.
+     *
+     * @param country the country
+     * @return the letter it is indexed under
+     */
+    private static Character firstLetter(final Country country) 
+    {
+        final String key = AnswerIndex.normalize(country.getName());
+        return key.isEmpty() ? ' ' : Character.toUpperCase(key.charAt(0));
+    }
+
+    /**
+     * Seals the world so it can be shared safely between games, building its
+     * indexes now so that no game's first lookup pays for them.
+     */
+    void seal() 
+    {
+        sealed = true;
+        indexes();
+    }
+
+    /**
+     * Retrieves a country by name. Case, accents, punctuation and known
+     * aliases are ignored, so "cote d'ivoire" finds "C&ocirc;te d&rsquo;Ivoire".
      *
      * @param name the name of the country
      * @return the Country object, or null if not found
      */
     public Country getCountryByName(final String name) 
     {
-        return countries.get(name);
+        final Country country = countries.get(name);
+        return country != null ? country : indexes().answers.findCountry(name);
+    }
+
+    /**
+     * Retrieves a country by its capital city, ignoring case, accents and punctuation.
+     *
+     * @param capital the name of the capital city
+     * @return the Country object, or null if not found
+     */
+    public Country getCountryByCapital(final String capital) 
+    {
+        return indexes().countriesByCapital.get(AnswerIndex.normalize(capital));
+    }
+
+    /**
+     * Gets the countries whose names start with a letter.
+     *
+     * @param letter the first letter, in either case
+     * @return an unmodifiable list of the countries, empty if there are none
+     */
+    public List<Country> getCountriesByLetter(final char letter) 
+    {
+        final List<Country> matches = indexes().countriesByLetter.get(Character.toUpperCase(letter));
+        return matches != null ? Collections.unmodifiableList(matches) : Collections.emptyList();
+    }
+
+    /**
+     * Finds the facts that mention every word of a query, for example "UNESCO".
+     *
+     * @param query one or more words; case, accents and punctuation are ignored
+     * @return the ids of the matching facts in ascending order, for use with getFact
+     */
+    public int[] findFacts(final String query) 
+    {
+        return indexes().facts.find(query);
+    }
+
+    /**
+     * Gets the countries with at least one fact mentioning every word of a query.
+     *
+     * @param query one or more words; case, accents and punctuation are ignored
+     * @return the matching countries in World order, without repeats
+     */
+    public List<Country> getCountriesMentioning(final String query) 
+    {
+        final List<Country> matches = new ArrayList<>();
+        int lastCountry = -1;
+        for (final int factId : indexes().facts.find(query)) 
+        {
+            final int countryIndex = factId / CountryRecordParser.FACTS_PER_COUNTRY;
+            if (countryIndex != lastCountry) 
+            {
+                matches.add(countryList.get(countryIndex));
+                lastCountry = countryIndex;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the country a fact id belongs to.
+     *
+     * @param factId a fact id returned by findFacts
+     * @return the country
+     */
+    public Country getCountryForFact(final int factId) 
+    {
+        return countryList.get(factId / CountryRecordParser.FACTS_PER_COUNTRY);
+    }
+
+    /**
+     * Gets the text of a fact.
+     *
+     * @param factId a fact id returned by findFacts
+     * @return the fact
+     */
+    public String getFact(final int factId) 
+    {
+        return getCountryForFact(factId).getFact(factId % CountryRecordParser.FACTS_PER_COUNTRY);
+    }
+
+    /**
+     * Gets the normalized keys accepted for an answer.
+     *
+     * @param answer the answer as it appears in the catalog
+     * @return the accepted keys
+     */
+    String[] getAnswerKeys(final String answer) 
+    {
+        return indexes().answers.keysFor(answer);
+    }
+
+    /**
+     * Gets every normalized key of every answer, so a typo can be told apart
+     * from another answer.
+     *
+     * @return the keys
+     */
+    String[] getAllAnswerKeys() 
+    {
+        return indexes().answers.allKeys();
     }
 
     /**
-     * Gets a random country from the world.
+     * Gets the number of countries in the world.
      *
+     * @return the number of countries
+     */
+    public int size() 
+    {
+        return countries.size();
+    }
+
+    /**
+     * Gets every country in the world.
+     *
+     * @return an unmodifiable view of the countries in insertion order
+     */
+    public List<Country> getCountries() 
+    {
+        return Collections.unmodifiableList(countryList);
+    }
+
+    /**
+     * Gets a random country from the world using the given generator.
+     *
+     * @param random the random number generator
      * @return a randomly selected Country object
      */
-    public Country getRandomCountry() 
+    public Country getRandomCountry(final RandomGenerator random) 
     {
-        final Object[] values = countries.values().toArray();
-        final int randomIndex = new Random().nextInt(values.length);
-        return (Country) values[randomIndex];
+        return countryList.get(random.nextInt(countryList.size()));
+    }
+
+    /**
+     * Picks distinct random countries using the given generator.
+     *
+     * This is a partial Fisher-Yates shuffle of the country indexes that
+     * records only the slots it has displaced, so it costs O(count) space
+     * rather than a copy of every country, and the same generator state
+     * always yields the same sample.
+     *
+     * @param count  the number of countries wanted
+     * @param random the random number generator
+     * @return up to count countries with no repeats, fewer if the world is smaller
+     */
+    public List<Country> sampleCountries(final int count, final RandomGenerator random) 
+    {
+        final int size = countryList.size();
+        final int picks = Math.max(0, Math.min(count, size));
+        final Country[] sample = new Country[picks];
+
+        // Slot displaced[k] of the virtual shuffle holds index displacedBy[k]; other slots hold themselves
+        final int[] displaced = new int[picks];
+        final int[] displacedBy = new int[picks];
+        int displacements = 0;
+        for (int i = 0; i < picks; i++) 
+        {
+            final int j = i + random.nextInt(size - i);
+            final int atJ = slotValue(displaced, displacedBy, displacements, j);
+            sample[i] = countryList.get(atJ);
+            if (j != i) 
+            {
+                // Slot i is never read again, so only slot j needs to remember what it now holds
+                final int atI = slotValue(displaced, displacedBy, displacements, i);
+                int k = 0;
+                while (k < displacements && displaced[k] != j) 
+                {
+                    k++;
+                }
+                if (k == displacements) 
+                {
+                    displaced[displacements++] = j;
+                }
+                displacedBy[k] = atI;
+            }
+        }
+        return Arrays.asList(sample);
+    }
+
+    /**
+     * Reads a slot of the virtual shuffle in sampleCountries.
+     *
+     * @param displaced     the slots that have been written
+     * @param displacedBy   the index each of those slots holds
+     * @param displacements the number of slots written
+     * @param slot          the slot to read
+     * @return the country index in that slot
+     */
+    private static int slotValue(final int[] displaced, final int[] displacedBy, final int displacements,
+                                 final int slot) 
+    {
+        for (int k = 0; k < displacements; k++) 
+        {
+            if (displaced[k] == slot) 
+            {
+                return displacedBy[k];
+            }
+        }
+        return slot;
     }
 
     /**
@@ -68,4 +360,42 @@ public final class World
             System.out.println(countryName);
         }
     }
+
+    /**
+     * The lookups derived from the countries, built together in one pass.
+     */
+    private static final class Indexes 
+    {
+        /** Normalized capital names to their countries. */
+        final Map<String, Country> countriesByCapital;
+
+        /** Upper-case first letters to the countries whose names start with them. */
+        final Map<Character, List<Country>> countriesByLetter;
+
+        /** Normalized name and answer keys for forgiving lookups. */
+        final AnswerIndex answers;
+
+        /** Fact terms to the facts that mention them. */
+        final FactIndex facts;
+
+        /**
+         * Indexes every country.
+         *
+         * @param countries the countries in World order
+         */
+        Indexes(final List<Country> countries) 
+        {
+            countriesByCapital = new HashMap<>(capacityFor(countries.size()));
+            countriesByLetter = new HashMap<>(capacityFor(LETTER_CAPACITY));
+            answers = new AnswerIndex(countries.size());
+            facts = new FactIndex(countries.size());
+            for (final Country country : countries) 
+            {
+                countriesByCapital.put(AnswerIndex.normalize(country.getCapitalCityName()), country);
+                countriesByLetter.computeIfAbsent(firstLetter(country), letter -> new ArrayList<>()).add(country);
+                answers.add(country);
+            }
+            facts.rebuild(countries);
+        }
+    }
 }
@@ -0,0 +1,173 @@
+package WordGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Process-wide, lazily loaded country catalog shared by every WordGame.
+ *
+ * The first call to {@link #get()} loads the shards; later calls return the
+ * same sealed World without touching the file system.
+ */
+public final class WorldRepository
+{
+    /** The letters naming each shard, used to fingerprint the directory. */
+    private static final String SHARD_LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private static final Object LOCK = new Object();
+
+    private static volatile Catalog catalog;
+
+    private WorldRepository()
+    {
+    }
+
+    /**
+     * Gets the shared world, loading it on first use.
+     *
+     * @return the shared, sealed world
+     */
+    public static World get()
+    {
+        Catalog current = catalog;
+        if (current == null)
+        {
+            synchronized (LOCK)
+            {
+                current = catalog;
+                if (current == null)
+                {
+                    current = load();
+                    catalog = current;
+                }
+            }
+        }
+        return current.world;
+    }
+
+    /**
+     * Discards the shared world and loads it again from disk.
+     * Games already holding the old world keep using it.
+     *
+     * @return the newly loaded world
+     */
+    public static World reload()
+    {
+        synchronized (LOCK)
+        {
+            final Catalog current = load();
+            catalog = current;
+            return current.world;
+        }
+    }
+
+    /**
+     * Reloads the shared world only if a shard or the shard zip changed since it was loaded.
+     *
+     * @return the current shared world
+     */
+    public static World reloadIfChanged()
+    {
+        final Catalog current = catalog;
+        if (current != null && current.fingerprint == catalogFingerprint())
+        {
+            return current.world;
+        }
+        return reload();
+    }
+
+    /**
+     * Loads and seals the catalog, preferring an up-to-date snapshot over
+     * the text shards and the shard directory over the zip.
+     *
+     * @return the loaded catalog
+     */
+    private static Catalog load()
+    {
+        final long fingerprint = catalogFingerprint();
+        CountryCatalogLoader.Result result = null;
+
+        // A snapshot is compiled from the directory, so without one it cannot be checked against the zip
+        if (Files.isDirectory(CountryCatalogLoader.DEFAULT_DIRECTORY)
+                || !Files.isRegularFile(CountryCatalogLoader.DEFAULT_ZIP))
+        {
+            result = CountrySnapshot.load(CountrySnapshot.DEFAULT_FILE, CountryCatalogLoader.DEFAULT_DIRECTORY);
+        }
+        if (result == null)
+        {
+            result = CountryCatalogLoader.load(CountryCatalogLoader.DEFAULT_DIRECTORY, CountryCatalogLoader.DEFAULT_ZIP);
+        }
+        result.reportErrors();
+        result.getWorld().seal();
+        return new Catalog(result.getWorld(), fingerprint);
+    }
+
+    /**
+     * Fingerprints every source the shared catalog may be loaded from: the
+     * default shard directory and the default shard zip.
+     *
+     * @return a value that changes whenever a shard or the zip is edited, added or removed
+     */
+    private static long catalogFingerprint()
+    {
+        return mix(fingerprint(CountryCatalogLoader.DEFAULT_DIRECTORY), CountryCatalogLoader.DEFAULT_ZIP);
+    }
+
+    /**
+     * Combines the size and modification time of every shard.
+     *
+     * @param directory the shard directory
+     * @return a value that changes whenever a shard is edited, added or removed
+     */
+    static long fingerprint(final Path directory)
+    {
+        long fingerprint = 17;
+        for (final char letter : SHARD_LETTERS.toCharArray())
+        {
+            fingerprint = mix(fingerprint, directory.resolve(letter + ".txt"));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Mixes the size and modification time of a file into a fingerprint.
+     *
+     * @param fingerprint the fingerprint so far
+     * @param file        the file
+     * @return the new fingerprint
+     */
+    private static long mix(final long fingerprint, final Path file)
+    {
+        long size = -1;
+        long modified = -1;
+        try
+        {
+            // One stat per file; the fingerprint is checked on every snapshot load
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            size = attributes.size();
+            modified = attributes.lastModifiedTime().toMillis();
+        }
+        catch (IOException e)
+        {
+            // A missing file still contributes, so adding it later is detected
+        }
+        return 31 * (31 * fingerprint + size) + modified;
+    }
+
+    /**
+     * A loaded world together with the fingerprint of the sources it was built from.
+     */
+    private static final class Catalog
+    {
+        final World world;
+        final long fingerprint;
+
+        Catalog(final World world, final long fingerprint)
+        {
+            this.world = world;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
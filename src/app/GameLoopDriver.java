@@ -0,0 +1,78 @@
+package app;
+
+import entity.BulletSpawner;
+import java.util.Arrays;
+import world.GameLoop;
+
+/**
+ * Runs the game's bullet patterns through a {@link GameLoop} headlessly,
+ * on a fake clock, for display rates from smooth to stuttering. The
+ * simulation runs the same steps whatever the frame rate, so the step count,
+ * the simulation time and the final bullet count should match across
+ * displays, except where frames fall so far behind that time is dropped.
+ */
+public final class GameLoopDriver {
+
+    private static final double SIMULATED_SECONDS = 20;
+
+    private GameLoopDriver() {
+    }
+
+    /**
+     * Runs the driver.
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        // Warms the JIT up so the first row is comparable
+        run(null, new long[] {16_666_667});
+        System.out.println("display              frames  steps  max steps/frame  dropped (ms)  sim (ms/s)  bullets");
+        run("60 Hz", new long[] {16_666_667});
+        run("144 Hz", new long[] {6_944_444});
+        run("30 Hz", new long[] {33_333_333});
+        run("60 Hz, 50 ms hitch", hitch(50_000_000));
+        run("60 Hz, 250 ms hitch", hitch(250_000_000));
+    }
+
+    /**
+     * A 60 Hz display that stalls for one long frame every second.
+     */
+    private static long[] hitch(final long stallNanos) {
+        final long[] frames = new long[60];
+        Arrays.fill(frames, 16_666_667);
+        frames[59] = stallNanos;
+        return frames;
+    }
+
+    private static void run(final String name, final long[] frameNanos) {
+        final double[] angles1 = {0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100, 110, 120, 130, 140, 150, 160, 170, 180};
+        final double[] angles2 = {-45, -135};
+        final BulletSpawner spawner1 = new BulletSpawner(0.5);
+        final BulletSpawner spawner2 = new BulletSpawner(1);
+        final long[] simNanos = new long[1];
+        final int[] maxSteps = new int[1];
+        final GameLoop loop = new GameLoop(deltaTime -> {
+            final long start = System.nanoTime();
+            spawner1.step(deltaTime, ScrollableWorldApp.WORLD_WIDTH / 2, 0, 5, 10, 100, 0, angles1, 10);
+            spawner2.step(deltaTime, ScrollableWorldApp.WORLD_WIDTH / 2, ScrollableWorldApp.WORLD_HEIGHT,
+                    5, 10, 100, 0, angles2, 5);
+            simNanos[0] += System.nanoTime() - start;
+        }, alpha -> {
+        });
+
+        long now = 1;
+        int frames = 0;
+        final long end = now + (long) (SIMULATED_SECONDS * 1e9);
+        while (now < end) {
+            maxSteps[0] = Math.max(maxSteps[0], loop.advance(now));
+            now += frameNanos[frames % frameNanos.length];
+            frames++;
+        }
+
+        if (name == null) {
+            return;
+        }
+        System.out.printf("%-20s %-7d %-6d %-16d %-13.1f %-11.3f %d%n", name, frames, loop.getStepCount(), maxSteps[0],
+                loop.getDroppedNanos() / 1e6, simNanos[0] / 1e6 / SIMULATED_SECONDS,
+                spawner1.getBulletCount() + spawner2.getBulletCount());
+    }
+}
@@ -1,14 +1,33 @@
 package app;
 
+import entity.BulletPool;
+import entity.BulletRenderer;
 import entity.BulletSpawner;
+import entity.CanvasBulletRenderer;
+import entity.NodeBulletRenderer;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import metrics.FrameMetrics;
+import metrics.MetricsExporter;
+import metrics.MetricsOverlay;
 import player.Player;
+import util.TripleBuffer;
+import world.GameLoop;
+import world.SimulationThread;
+import world.SpatialHashGrid;
+import world.Viewport;
 import world.World;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Main application entry point for the Scrollable World App.
  */
@@ -17,7 +36,39 @@ public final class ScrollableWorldApp extends Application {
     final static int WORLD_HEIGHT = 800;
     final static int WINDOW_WIDTH = 800;
     final static int WINDOW_HEIGHT = 600;
+
+    /** Set to a file name to append frame metrics to it; .json selects JSON lines, anything else CSV. */
+    static final String METRICS_FILE_PROPERTY = "metrics.file";
+
+    /** Set to "canvas" to draw bullets on one canvas layer, or "nodes" for one node per bullet (the default). */
+    static final String RENDERER_PROPERTY = "bullets.renderer";
+
+    /** The key that switches between the bullet renderers. */
+    static final KeyCode RENDERER_TOGGLE_KEY = KeyCode.F2;
+
+    /** How far outside the world the canvas renderer still draws bullets. */
+    static final int CANVAS_MARGIN = 200;
+
+    /** How far outside the world bullets may fly before they are despawned; inside CANVAS_MARGIN so the canvas still reaches them. */
+    static final int DESPAWN_MARGIN = 100;
+
+    /**
+     * Set to true to run the simulation on a thread of its own. The JavaFX thread then only draws the latest
+     * {@link SimulationSnapshot}, and the simulation's phase timings go to a metrics file of their own.
+     */
+    static final String SIMULATION_THREAD_PROPERTY = "simulation.thread";
+
+    /** The simulation rate, in steps per second, whatever the display's frame rate. */
+    static final int SIMULATION_RATE = 120;
+
+    /** The cell size of the collision grids, about the size of the player. */
+    static final int GRID_CELL_SIZE = 32;
+
     private Stage primaryStage;
+    private BulletRenderer renderer; // Only touched on the FX thread
+    private long playerHits; // Only touched by the simulation
+    private final List<MetricsExporter> exporters = new ArrayList<>(); // Closed by stop
+    private SimulationThread simulator; // Set when the simulation has a thread of its own
     @Override
     public void start(final Stage primaryStage) {
 
@@ -37,33 +88,111 @@ public final class ScrollableWorldApp extends Application {
         world.addEntity(player.getPlayer());
         camera = new Pane(world.getRoot());
 
-        scene = new Scene(camera, WINDOW_WIDTH, WINDOW_HEIGHT);
+        // Frame metrics, shown with F3 and optionally exported to a file
+        final FrameMetrics metrics = new FrameMetrics();
+        final MetricsOverlay overlay = new MetricsOverlay(metrics);
+        final String metricsFile = System.getProperty(METRICS_FILE_PROPERTY);
+        if (metricsFile != null) {
+            final MetricsExporter exporter = new MetricsExporter(Paths.get(metricsFile));
+            exporters.add(exporter);
+            metrics.addListener(exporter);
+        }
+
+        // A simulation thread records into metrics of its own, as recording is confined to one thread
+        final boolean simulationThread = Boolean.getBoolean(SIMULATION_THREAD_PROPERTY);
+        final FrameMetrics simulationMetrics = simulationThread ? new FrameMetrics() : metrics;
+        if (simulationThread && metricsFile != null) {
+            final MetricsExporter exporter = new MetricsExporter(Paths.get(simulationMetricsFile(metricsFile)));
+            exporters.add(exporter);
+            simulationMetrics.addListener(exporter);
+        }
+
+        // The overlay sits outside the camera so it does not scroll
+        scene = new Scene(new Pane(camera, overlay.getNode()), WINDOW_WIDTH, WINDOW_HEIGHT);
         player.enableControls(scene, WORLD_WIDTH, WORLD_HEIGHT, camera);
+        overlay.install(scene);
 
         // Create bullet spawners with adjusted spawn rates
         BulletSpawner spawner1;
         BulletSpawner spawner2;
-        spawner1 = new BulletSpawner(0.5);  // Spawn every 1 second
-        spawner2= new BulletSpawner(1);  // Spawn every 1 second
+        final BulletPool pool = new BulletPool();
+        spawner1 = new BulletSpawner(0.5, pool);  // Spawn every 1 second
+        spawner2= new BulletSpawner(1, pool);  // Spawn every 1 second
+        final BulletRenderer nodeRenderer = new NodeBulletRenderer(camera, pool);
+        final BulletRenderer canvasRenderer = new CanvasBulletRenderer(camera, WORLD_WIDTH, WORLD_HEIGHT, CANVAS_MARGIN);
+        renderer = "canvas".equalsIgnoreCase(System.getProperty(RENDERER_PROPERTY)) ? canvasRenderer : nodeRenderer;
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == RENDERER_TOGGLE_KEY) {
+                // An empty frame clears whatever the outgoing renderer drew
+                renderer.beginFrame();
+                renderer.endFrame();
+                renderer = renderer == nodeRenderer ? canvasRenderer : nodeRenderer;
+            }
+        });
+        spawner1.setMetrics(simulationMetrics);
+        spawner2.setMetrics(simulationMetrics);
+        spawner1.getField().attachGrid(new SpatialHashGrid(WORLD_WIDTH, WORLD_HEIGHT, GRID_CELL_SIZE));
+        spawner2.getField().attachGrid(new SpatialHashGrid(WORLD_WIDTH, WORLD_HEIGHT, GRID_CELL_SIZE));
+        spawner1.getField().setDespawnBounds(-DESPAWN_MARGIN, -DESPAWN_MARGIN,
+                WORLD_WIDTH + DESPAWN_MARGIN, WORLD_HEIGHT + DESPAWN_MARGIN);
+        spawner2.getField().setDespawnBounds(-DESPAWN_MARGIN, -DESPAWN_MARGIN,
+                WORLD_WIDTH + DESPAWN_MARGIN, WORLD_HEIGHT + DESPAWN_MARGIN);
+
+        // Only bullets the camera can see are drawn
+        final Viewport viewport = new Viewport(0);
+        nodeRenderer.setViewport(viewport);
+        canvasRenderer.setViewport(viewport);
 
         // Define the angles for the bullet streams
         double[] angles1 = {0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100, 110, 120, 130, 140, 150, 160, 170, 180};
         double[] angles2 = {-45, -135};
 
-        // Start the game loop to update bullets
-        new javafx.animation.AnimationTimer() {
-            long lastTime = System.nanoTime();
+        // One loop steps the simulation at a fixed rate
+        final GameLoop.Simulation simulation = deltaTime -> {
+            // Move the player
+            player.update(deltaTime);
 
-            @Override
-            public void handle(long now) {
-                double deltaTime = (now - lastTime) / 1e9; // Convert nanoseconds to seconds
-                lastTime = now;
+            // Step the spawners (move the bullets and remove expired ones)
+            spawner1.step(deltaTime, WORLD_WIDTH / 2, 0, 5, 10, 100, 0, angles1, 10);
+            spawner2.step(deltaTime, WORLD_WIDTH / 2, WORLD_HEIGHT, 5, 10, 100, 0, angles2, 5);
 
-                // Update the spawners (move the bullets and remove expired ones)
-                spawner1.update(deltaTime, camera, WORLD_WIDTH / 2, 0, 5, 10, 100, 0, angles1, 10);
-                spawner2.update(deltaTime, camera, WORLD_WIDTH / 2, WORLD_HEIGHT, 5, 10, 100, 0, angles2, 5);
-            }
-        }.start();
+            // Bullets that touch the player are used up
+            final long collideStart = simulationMetrics.start();
+            final double right = player.getX() + player.getWidth();
+            final double bottom = player.getY() + player.getHeight();
+            playerHits += spawner1.getField().removeHits(player.getX(), player.getY(), right, bottom);
+            playerHits += spawner2.getField().removeHits(player.getX(), player.getY(), right, bottom);
+            simulationMetrics.stop(FrameMetrics.Phase.COLLIDE, collideStart);
+        };
+
+        if (simulationThread) {
+            startSimulationThread(simulation, simulationMetrics, metrics, player, new BulletSpawner[] {spawner1, spawner2},
+                    camera, scene, viewport);
+        } else {
+            // The JavaFX pulse drives the loop and renders once per pulse
+            final GameLoop loop = new GameLoop(SIMULATION_RATE, GameLoop.DEFAULT_MAX_STEPS_PER_FRAME, simulation, alpha -> {
+                // Show the player and bullets between the last two steps; the camera follows the player
+                final long renderStart = metrics.start();
+                player.render(alpha);
+                viewport.update(camera.getTranslateX(), camera.getTranslateY(), scene.getWidth(), scene.getHeight());
+                renderer.setLag((1 - alpha) / SIMULATION_RATE);
+                renderer.beginFrame();
+                renderer.draw(spawner1.getField());
+                renderer.draw(spawner2.getField());
+                renderer.endFrame();
+                metrics.stop(FrameMetrics.Phase.RENDER, renderStart);
+
+                metrics.setGauge(FrameMetrics.Gauge.LIVE_BULLETS,
+                        spawner1.getBulletCount() + spawner2.getBulletCount());
+                metrics.setGauge(FrameMetrics.Gauge.SCENE_NODES, camera.getChildren().size());
+                metrics.setGauge(FrameMetrics.Gauge.PLAYER_HITS, playerHits);
+                metrics.setGauge(FrameMetrics.Gauge.CULLED_BULLETS, renderer.getCulledCount());
+                metrics.setGauge(FrameMetrics.Gauge.DESPAWNED_BULLETS,
+                        spawner1.getField().getDespawnedCount() + spawner2.getField().getDespawnedCount());
+            });
+            loop.setMetrics(metrics);
+            loop.start();
+        }
 
         // Set up the primary stage
         primaryStage.setTitle("Scrollable World App");
@@ -72,4 +201,98 @@ public final class ScrollableWorldApp extends Application {
     public void showGame() {
         primaryStage.show();
     }
+
+    /**
+     * Runs the simulation on a thread of its own, which publishes a snapshot after every step, and draws the latest
+     * snapshot on each JavaFX pulse. From here on only the simulation thread touches the player's position, the
+     * spawners and playerHits; the JavaFX thread only touches the scene graph and the snapshots it acquires.
+     *
+     * @param simulation        the simulation step
+     * @param simulationMetrics the metrics the simulation thread records into
+     * @param metrics           the metrics the JavaFX thread records into
+     * @param player            the player
+     * @param spawners          the spawners
+     * @param camera            the camera pane
+     * @param scene             the scene
+     * @param viewport          the viewport renderers cull against
+     */
+    private void startSimulationThread(final GameLoop.Simulation simulation, final FrameMetrics simulationMetrics,
+                                       final FrameMetrics metrics, final Player player,
+                                       final BulletSpawner[] spawners, final Pane camera, final Scene scene,
+                                       final Viewport viewport) {
+        final TripleBuffer<SimulationSnapshot> snapshots =
+                new TripleBuffer<>(() -> new SimulationSnapshot(spawners.length));
+        final long stepNanos = 1_000_000_000L / SIMULATION_RATE;
+        final GameLoop loop = new GameLoop(SIMULATION_RATE, GameLoop.DEFAULT_MAX_STEPS_PER_FRAME, simulation, alpha -> {
+            // The state belongs to the last step, which was due alpha of a step ago
+            final long stepNanoTime = System.nanoTime() - (long) (alpha * stepNanos);
+            snapshots.getWriteBuffer().capture(player, spawners, playerHits, stepNanoTime);
+            snapshots.publish();
+        });
+        loop.setMetrics(simulationMetrics);
+
+        new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                metrics.beginFrame(now);
+                final SimulationSnapshot snapshot = snapshots.acquire();
+                if (snapshot.getStepNanoTime() == 0) {
+                    // Nothing published yet
+                    metrics.endFrame();
+                    return;
+                }
+
+                // Interpolate as the single-threaded loop does, by how far the clock is past the last step
+                final long renderStart = metrics.start();
+                final double alpha = Math.max(0, Math.min(1, (double) (now - snapshot.getStepNanoTime()) / stepNanos));
+                final double previousX = snapshot.getPreviousPlayerX();
+                final double previousY = snapshot.getPreviousPlayerY();
+                player.showAt(previousX + (snapshot.getPlayerX() - previousX) * alpha,
+                        previousY + (snapshot.getPlayerY() - previousY) * alpha);
+                viewport.update(camera.getTranslateX(), camera.getTranslateY(), scene.getWidth(), scene.getHeight());
+                renderer.setLag((1 - alpha) / SIMULATION_RATE);
+                renderer.beginFrame();
+                for (int i = 0; i < snapshot.getFieldCount(); i++) {
+                    renderer.draw(snapshot.getField(i));
+                }
+                renderer.endFrame();
+                metrics.stop(FrameMetrics.Phase.RENDER, renderStart);
+
+                metrics.setGauge(FrameMetrics.Gauge.LIVE_BULLETS, snapshot.getBulletCount());
+                metrics.setGauge(FrameMetrics.Gauge.SCENE_NODES, camera.getChildren().size());
+                metrics.setGauge(FrameMetrics.Gauge.PLAYER_HITS, snapshot.getPlayerHits());
+                metrics.setGauge(FrameMetrics.Gauge.CULLED_BULLETS, renderer.getCulledCount());
+                metrics.setGauge(FrameMetrics.Gauge.DESPAWNED_BULLETS, snapshot.getDespawned());
+                metrics.endFrame();
+            }
+        }.start();
+        simulator = new SimulationThread(loop);
+        simulator.start();
+    }
+
+    /**
+     * Stops the simulation thread, so it records no further frames, then writes out the metrics still queued.
+     */
+    @Override
+    public void stop() throws InterruptedException {
+        if (simulator != null) {
+            simulator.stop();
+        }
+        for (final MetricsExporter exporter : exporters) {
+            exporter.close();
+        }
+    }
+
+    /**
+     * Names the metrics file of a simulation thread after the main one, as name.simulation.ext.
+     *
+     * @param metricsFile the main metrics file
+     * @return the simulation thread's metrics file
+     */
+    static String simulationMetricsFile(final String metricsFile) {
+        final int dot = metricsFile.lastIndexOf('.');
+        return dot > metricsFile.lastIndexOf('/') && dot > 0
+                ? metricsFile.substring(0, dot) + ".simulation" + metricsFile.substring(dot)
+                : metricsFile + ".simulation";
+    }
 }
@@ -0,0 +1,156 @@
+package app;
+
+import entity.BulletField;
+import entity.BulletSpawner;
+import player.Player;
+
+/**
+ * A copy of the game state that the simulation thread hands to the JavaFX
+ * thread through a {@link util.TripleBuffer}.
+ *
+ * The simulation thread captures into a snapshot it owns and publishes it;
+ * from then until the JavaFX thread acquires a newer one, nothing changes it,
+ * so the JavaFX thread reads it without locks. Snapshots are reused, so they
+ * allocate nothing once their fields have grown.
+ */
+final class SimulationSnapshot {
+
+    private final BulletField[] fields;
+    private double playerX;
+    private double playerY;
+    private double previousPlayerX;
+    private double previousPlayerY;
+    private long playerHits;
+    private long despawned;
+    private long stepNanoTime;
+
+    /**
+     * Creates an empty snapshot.
+     *
+     * @param fieldCount the number of bullet fields it holds
+     */
+    SimulationSnapshot(final int fieldCount) {
+        fields = new BulletField[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = new BulletField();
+        }
+    }
+
+    /**
+     * Copies the state after a step. Called on the simulation thread.
+     *
+     * @param player       the player
+     * @param spawners     the spawners, one per field
+     * @param playerHits   the bullets that have hit the player so far
+     * @param stepNanoTime when the step the state belongs to was due, in {@link System#nanoTime()} units
+     */
+    void capture(final Player player, final BulletSpawner[] spawners, final long playerHits,
+                 final long stepNanoTime) {
+        playerX = player.getX();
+        playerY = player.getY();
+        previousPlayerX = player.getPreviousX();
+        previousPlayerY = player.getPreviousY();
+        despawned = 0;
+        for (int i = 0; i < fields.length; i++) {
+            spawners[i].getField().copyTo(fields[i]);
+            despawned += spawners[i].getField().getDespawnedCount();
+        }
+        this.playerHits = playerHits;
+        this.stepNanoTime = stepNanoTime;
+    }
+
+    /**
+     * Gets the copied bullets. The JavaFX thread may draw them but must not change them.
+     *
+     * @param i the spawner index
+     * @return the copy of that spawner's field
+     */
+    BulletField getField(final int i) {
+        return fields[i];
+    }
+
+    /**
+     * Gets the number of bullet fields.
+     *
+     * @return the field count
+     */
+    int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * Gets the live bullets across every field.
+     *
+     * @return the bullet count
+     */
+    int getBulletCount() {
+        int count = 0;
+        for (final BulletField field : fields) {
+            count += field.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the player's X position after the step.
+     *
+     * @return the left edge of the player
+     */
+    double getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Gets the player's Y position after the step.
+     *
+     * @return the top edge of the player
+     */
+    double getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Gets the player's X position before the step.
+     *
+     * @return the left edge of the player one step earlier
+     */
+    double getPreviousPlayerX() {
+        return previousPlayerX;
+    }
+
+    /**
+     * Gets the player's Y position before the step.
+     *
+     * @return the top edge of the player one step earlier
+     */
+    double getPreviousPlayerY() {
+        return previousPlayerY;
+    }
+
+    /**
+     * Gets the bullets that have hit the player so far.
+     *
+     * @return the hit count
+     */
+    long getPlayerHits() {
+        return playerHits;
+    }
+
+    /**
+     * Gets the bullets despawned so far across every field.
+     *
+     * @return the despawned bullet count
+     */
+    long getDespawned() {
+        return despawned;
+    }
+
+    /**
+     * Gets when the step the state belongs to was due.
+     *
+     * @return the time in {@link System#nanoTime()} units
+     */
+    long getStepNanoTime() {
+        return stepNanoTime;
+    }
+}
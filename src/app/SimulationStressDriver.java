@@ -0,0 +1,139 @@
+package app;
+
+import entity.BulletField;
+import entity.BulletSpawner;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+import player.Player;
+import util.TripleBuffer;
+import world.GameLoop;
+import world.SimulationThread;
+import world.Viewport;
+
+/**
+ * Measures how much time the rendering thread spends per frame as the bullet
+ * count rises, headlessly, with the simulation run on that thread and with
+ * it run on a {@link SimulationThread} that hands over a
+ * {@link SimulationSnapshot} through a {@link TripleBuffer}.
+ *
+ * The main thread plays the JavaFX thread at 60 frames per second. Each
+ * frame it either advances the game loop itself or acquires the latest
+ * snapshot, then walks every bullet against the viewport as a renderer
+ * would. Its CPU time per frame is what input handling and rendering would
+ * be left to compete with.
+ */
+public final class SimulationStressDriver {
+
+    private static final long FRAME_NANOS = 16_666_667;
+    private static final int FRAMES = 180;
+
+    private SimulationStressDriver() {
+    }
+
+    /**
+     * Runs the driver.
+     * @param args unused
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        // Warms the JIT up so the first row is comparable
+        run(20_000, false);
+        run(20_000, true);
+        System.out.println("bullets  mode               frame thread CPU (ms/frame)  frame thread wall (ms/frame)");
+        for (final int count : new int[] {2_000, 20_000, 100_000, 200_000}) {
+            print(count, false, run(count, false));
+            print(count, true, run(count, true));
+        }
+    }
+
+    private static void print(final int count, final boolean threaded, final double[] result) {
+        System.out.printf("%-8d %-18s %-28.3f %.3f%n", count, threaded ? "simulation thread" : "frame thread",
+                result[0], result[1]);
+    }
+
+    /**
+     * Runs one configuration.
+     * @return the frame thread's CPU and wall time per frame, in milliseconds
+     */
+    private static double[] run(final int count, final boolean threaded) throws InterruptedException {
+        final Player player = new Player(50, 50);
+        final BulletSpawner spawner = new BulletSpawner(Double.MAX_VALUE);
+        final SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < count; i++) {
+            spawner.getField().spawn(random.nextDouble(ScrollableWorldApp.WORLD_WIDTH),
+                    random.nextDouble(ScrollableWorldApp.WORLD_HEIGHT), random.nextDouble(360), 100, 5, 1e9);
+        }
+        final BulletSpawner[] spawners = {spawner};
+        final double[] none = {};
+        final GameLoop.Simulation simulation = deltaTime -> {
+            player.update(deltaTime);
+            spawner.step(deltaTime, 0, 0, 0, 0, 0, 0, none, 0);
+        };
+        final Viewport viewport = new Viewport(0);
+        viewport.update(-(50 - ScrollableWorldApp.WINDOW_WIDTH / 2), -(50 - ScrollableWorldApp.WINDOW_HEIGHT / 2),
+                ScrollableWorldApp.WINDOW_WIDTH, ScrollableWorldApp.WINDOW_HEIGHT);
+        final int[] visible = new int[1];
+
+        final GameLoop frameLoop;
+        final SimulationThread simulationThread;
+        final TripleBuffer<SimulationSnapshot> snapshots = new TripleBuffer<>(() -> new SimulationSnapshot(1));
+        if (threaded) {
+            frameLoop = null;
+            final GameLoop loop = new GameLoop(ScrollableWorldApp.SIMULATION_RATE,
+                    GameLoop.DEFAULT_MAX_STEPS_PER_FRAME, simulation, alpha -> {
+                        snapshots.getWriteBuffer().capture(player, spawners, 0, System.nanoTime());
+                        snapshots.publish();
+                    });
+            simulationThread = new SimulationThread(loop);
+            simulationThread.start();
+        } else {
+            frameLoop = new GameLoop(ScrollableWorldApp.SIMULATION_RATE, GameLoop.DEFAULT_MAX_STEPS_PER_FRAME,
+                    simulation, alpha -> visible[0] += draw(spawner.getField(), viewport));
+            simulationThread = null;
+        }
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpu = 0;
+        long wall = 0;
+        long next = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            final long cpuStart = threads.getCurrentThreadCpuTime();
+            final long wallStart = System.nanoTime();
+            if (threaded) {
+                final SimulationSnapshot snapshot = snapshots.acquire();
+                for (int i = 0; i < snapshot.getFieldCount(); i++) {
+                    visible[0] += draw(snapshot.getField(i), viewport);
+                }
+            } else {
+                frameLoop.advance(wallStart);
+            }
+            cpu += threads.getCurrentThreadCpuTime() - cpuStart;
+            wall += System.nanoTime() - wallStart;
+
+            next += FRAME_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
+        if (visible[0] < 0) {
+            System.out.println(visible[0]); // Keeps the walk from being optimized away
+        }
+        return new double[] {cpu / 1e6 / FRAMES, wall / 1e6 / FRAMES};
+    }
+
+    /**
+     * Walks a field as a renderer would, culling against the viewport.
+     * @return the number of visible bullets
+     */
+    private static int draw(final BulletField field, final Viewport viewport) {
+        int visible = 0;
+        for (int i = 0; i < field.size(); i++) {
+            if (viewport.isVisible(field.getX(i), field.getY(i), field.getRadius(i))) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+}
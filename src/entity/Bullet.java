@@ -1,20 +1,18 @@
 package entity;
 
-import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-
 /**
- * Represents a bullet in the game with a position, speed, and size.
+ * Describes a bullet to fire: where it starts, its direction, speed, size and lifespan.
+ * Patterns describe their shots with these; a {@link BulletSpawner} copies them into its
+ * {@link BulletField}, which simulates them, and a {@link BulletRenderer} draws them.
  */
-public class Bullet extends Circle {
+public class Bullet {
 
-    private final Circle bullet;
-    private double angle;
-    private double speed;
-    private double size;
-    private double lifespan; // Duration the bullet will exist (in seconds)
-    private double age = 0;  // Time passed since the bullet was created
+    private final double x;
+    private final double y;
+    private final double angle;
+    private final double speed;
+    private final double size;
+    private final double lifespan; // Duration the bullet will exist (in seconds)
 
     /**
      * Constructs a Bullet with given parameters.
@@ -26,45 +24,59 @@ public class Bullet extends Circle {
      * @param lifespan the lifespan of the bullet (in seconds)
      */
     public Bullet(double x, double y, double angle, double speed, double size, double lifespan) {
+        this.x = x;
+        this.y = y;
         this.angle = angle;
         this.speed = speed;
         this.size = size;
         this.lifespan = lifespan;
+    }
 
-        // Initialize the bullet (using a Circle for simplicity)
-        this.bullet = new Circle(x, y, size);
-        this.bullet.setFill(Color.RED); // Set bullet color to red
+    /**
+     * Gets the x-coordinate the bullet starts at.
+     * @return the x-coordinate
+     */
+    public double getX() {
+        return x;
     }
 
     /**
-     * Updates the position of the bullet based on its speed and angle, and checks if it should despawn.
-     * @param deltaTime the time delta since the last update
-     * @param camera the camera (pane) that holds the bullets
+     * Gets the y-coordinate the bullet starts at.
+     * @return the y-coordinate
      */
-    public void updatePosition(double deltaTime, Pane camera) {
-        // Update position based on speed and angle
-        double radians = Math.toRadians(angle);
-        double dx = Math.cos(radians) * speed * deltaTime;
-        double dy = Math.sin(radians) * speed * deltaTime;
+    public double getY() {
+        return y;
+    }
 
-        // Update the bullet's position
-        bullet.setCenterX(bullet.getCenterX() + dx);
-        bullet.setCenterY(bullet.getCenterY() + dy);
+    /**
+     * Gets the angle the bullet is fired at.
+     * @return the angle (in degrees)
+     */
+    public double getAngle() {
+        return angle;
+    }
 
-        // Update the bullet's age
-        age += deltaTime;
+    /**
+     * Gets the speed of the bullet.
+     * @return the speed
+     */
+    public double getSpeed() {
+        return speed;
+    }
 
-        // If the bullet has exceeded its lifespan, remove it from the pane
-        if (age >= lifespan) {
-            camera.getChildren().remove(bullet);
-        }
+    /**
+     * Gets the size of the bullet.
+     * @return the radius
+     */
+    public double getSize() {
+        return size;
     }
 
     /**
-     * Gets the Circle object representing the bullet.
-     * @return the Circle representing the bullet
+     * Gets how long the bullet lives.
+     * @return the lifespan (in seconds)
      */
-    public Circle getBullet() {
-        return bullet;
+    public double getLifespan() {
+        return lifespan;
     }
 }
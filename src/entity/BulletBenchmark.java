@@ -0,0 +1,107 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+/**
+ * Measures the per-frame cost of stepping bullets, headlessly: the
+ * structure-of-arrays {@link BulletField} at up to a million bullets, against
+ * one object and Circle node per bullet, as bullets were first written, at
+ * smaller counts.
+ * Only that second column builds scene-graph nodes, so only it initialises
+ * JavaFX; the field column is plain Java.
+ */
+public final class BulletBenchmark {
+
+    private static final double FRAME = 1.0 / 60;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 200;
+
+    private BulletBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        System.out.println("bullets      field step (ms/frame)   object-per-bullet (ms/frame)");
+        for (final int count : new int[] {10_000, 100_000, 1_000_000}) {
+            final double field = timeField(count);
+            final String objects = count <= 100_000 ? String.format("%.3f", timeObjects(count)) : "-";
+            System.out.printf("%-12d %-23.3f %s%n", count, field, objects);
+        }
+    }
+
+    private static double timeField(final int count) {
+        final BulletField field = new BulletField(count);
+        final SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < count; i++) {
+            // Lifespans long enough that the count stays constant while measuring
+            field.spawn(random.nextDouble(600), random.nextDouble(800), random.nextDouble(360), 100, 5, 1e9);
+        }
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            field.step(FRAME);
+        }
+        final long start = System.nanoTime();
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+            field.step(FRAME);
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_FRAMES;
+    }
+
+    private static double timeObjects(final int count) {
+        final List<ObjectBullet> bullets = new ArrayList<>(count);
+        final SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < count; i++) {
+            bullets.add(new ObjectBullet(random.nextDouble(600), random.nextDouble(800), random.nextDouble(360), 100, 5,
+                    1e9));
+        }
+        final int frames = MEASURED_FRAMES / 4;
+        for (int frame = 0; frame < frames; frame++) {
+            stepObjects(bullets);
+        }
+        final long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            stepObjects(bullets);
+        }
+        return (System.nanoTime() - start) / 1e6 / frames;
+    }
+
+    private static void stepObjects(final List<ObjectBullet> bullets) {
+        for (int i = 0; i < bullets.size(); i++) {
+            bullets.get(i).updatePosition(FRAME);
+        }
+    }
+
+    /**
+     * The object-per-bullet baseline: its own Circle node, moved with trig on every update.
+     */
+    private static final class ObjectBullet {
+        private final Circle node;
+        private final double angle;
+        private final double speed;
+        private final double lifespan;
+        private double age;
+
+        ObjectBullet(final double x, final double y, final double angle, final double speed, final double size,
+                     final double lifespan) {
+            this.angle = angle;
+            this.speed = speed;
+            this.lifespan = lifespan;
+            this.node = new Circle(x, y, size);
+            this.node.setFill(Color.RED);
+        }
+
+        boolean updatePosition(final double deltaTime) {
+            final double radians = Math.toRadians(angle);
+            node.setCenterX(node.getCenterX() + Math.cos(radians) * speed * deltaTime);
+            node.setCenterY(node.getCenterY() + Math.sin(radians) * speed * deltaTime);
+            age += deltaTime;
+            return age >= lifespan;
+        }
+    }
+}
@@ -0,0 +1,611 @@
+package entity;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import world.SpatialHashGrid;
+
+/**
+ * Headless bullet simulation that keeps every bullet's state in parallel
+ * primitive arrays instead of one object or scene-graph node per bullet.
+ *
+ * Velocity is resolved from the firing angle once, at spawn, so a step is a
+ * multiply-add per coordinate over contiguous arrays, which the JIT can
+ * vectorize. Expired bullets are removed by moving the last live bullet
+ * into their slot, so bullet indices are only stable between removals.
+ * Nothing here depends on JavaFX; a {@link BulletRenderer} draws the field in
+ * a separate pass. A field is not thread-safe.
+ *
+ * With a {@link SpatialHashGrid} attached, every bullet is kept in the grid as
+ * it spawns, moves and is removed, and hit queries only test bullets in
+ * nearby cells instead of all of them.
+ *
+ * Bullets leave the field when their lifespan runs out or, once despawn
+ * bounds are set, as soon as they move outside them, so a bullet that has
+ * left the world costs nothing for the rest of its lifespan.
+ *
+ * From a tunable number of bullets on (off by default), integration and the
+ * expiry scan are split into chunks that run in parallel on a {@link ForkJoinPool}. Chunks
+ * only touch their own slots and record which bullets are to go; the
+ * removals themselves, and any grid updates, stay on the calling thread,
+ * highest index first, so swap-removal stays correct. A field is still not
+ * thread-safe; the calling thread waits for its chunks.
+ */
+public final class BulletField {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default number of live bullets from which steps run in parallel: never,
+     * until splitting has been measured to pay off. Tune it with setParallelThreshold.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+
+    /** The number of bullets each parallel task handles. */
+    static final int CHUNK_SIZE = 16_384;
+
+    private double[] x;
+    private double[] y;
+    private double[] vx;
+    private double[] vy;
+    private double[] age;
+    private double[] lifespan;
+    private double[] radius;
+    private int size;
+    private double maxRadius;
+    private SpatialHashGrid grid;
+    private double despawnLeft = Double.NEGATIVE_INFINITY;
+    private double despawnTop = Double.NEGATIVE_INFINITY;
+    private double despawnRight = Double.POSITIVE_INFINITY;
+    private double despawnBottom = Double.POSITIVE_INFINITY;
+    private long expiredCount;
+    private long despawnedCount;
+    private int[] hits = new int[16]; // Reused by removeHits
+    private int hitCount;
+    private final IntConsumer hitCollector = this::addHit;
+
+    // The query in progress, so that grid queries need no capturing lambda
+    private double queryLeft;
+    private double queryTop;
+    private double queryRight;
+    private double queryBottom;
+    private IntConsumer queryAction;
+    private final IntConsumer candidateTest = this::testCandidate;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private int[][] doomedByChunk = new int[0][]; // Reused by the parallel expiry scan
+    private int[] doomedCounts = new int[0];
+
+    /**
+     * Creates an empty field.
+     */
+    public BulletField() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty field with room for a number of bullets before it grows.
+     * @param capacity the initial capacity
+     */
+    public BulletField(int capacity) {
+        int initial = Math.max(16, capacity);
+        x = new double[initial];
+        y = new double[initial];
+        vx = new double[initial];
+        vy = new double[initial];
+        age = new double[initial];
+        lifespan = new double[initial];
+        radius = new double[initial];
+    }
+
+    /**
+     * Adds a bullet.
+     * @param startX the x-coordinate of the bullet
+     * @param startY the y-coordinate of the bullet
+     * @param angle the angle at which the bullet is fired (in degrees)
+     * @param speed the speed of the bullet (in pixels per second)
+     * @param bulletSize the radius of the bullet
+     * @param duration the lifespan of the bullet (in seconds)
+     * @return the index of the new bullet
+     */
+    public int spawn(double startX, double startY, double angle, double speed, double bulletSize, double duration) {
+        if (size == x.length) {
+            grow();
+        }
+        double radians = Math.toRadians(angle);
+        int i = size++;
+        x[i] = startX;
+        y[i] = startY;
+        vx[i] = Math.cos(radians) * speed;
+        vy[i] = Math.sin(radians) * speed;
+        age[i] = 0;
+        lifespan[i] = duration;
+        radius[i] = bulletSize;
+        maxRadius = Math.max(maxRadius, bulletSize);
+        if (grid != null) {
+            grid.insert(i, startX, startY);
+        }
+        return i;
+    }
+
+    /**
+     * Spawns bullets in a stream at specified angles, as {@link BulletSpawner} does.
+     * @param startX the x-coordinate where bullets will be spawned
+     * @param startY the y-coordinate where bullets will be spawned
+     * @param bulletCount the number of bullets per angle
+     * @param bulletSize the size of each bullet
+     * @param bulletSpeed the speed of each bullet
+     * @param spawnAngle the angle added to every angle in the stream
+     * @param angles the angles of the stream (in degrees)
+     * @param bulletDuration the lifespan of each bullet (in seconds)
+     */
+    public void spawnStream(double startX, double startY, int bulletCount, double bulletSize, double bulletSpeed,
+                            double spawnAngle, double[] angles, double bulletDuration) {
+        for (double angle : angles) {
+            for (int i = 0; i < bulletCount; i++) {
+                spawn(startX, startY, spawnAngle + angle, bulletSpeed, bulletSize, bulletDuration);
+            }
+        }
+    }
+
+    /**
+     * Moves and ages every bullet.
+     * @param deltaTime the time step (in seconds)
+     */
+    public void integrate(double deltaTime) {
+        final int n = size;
+        if (isParallel(n)) {
+            pool.invoke(new ChunkTask(this, 0, chunkCount(n), deltaTime, false));
+        } else {
+            integrate(0, n, deltaTime);
+        }
+
+        // Kept out of the loop above so that it stays vectorizable, and on this thread as the grid is not thread-safe
+        if (grid != null) {
+            for (int i = 0; i < n; i++) {
+                grid.move(i, x[i], y[i]);
+            }
+        }
+    }
+
+    /**
+     * Moves and ages the bullets in a range of slots.
+     * @param from the first slot
+     * @param to the slot after the last
+     * @param deltaTime the time step (in seconds)
+     */
+    private void integrate(int from, int to, double deltaTime) {
+        final double[] px = x;
+        final double[] py = y;
+        final double[] pvx = vx;
+        final double[] pvy = vy;
+        final double[] pAge = age;
+        for (int i = from; i < to; i++) {
+            px[i] += pvx[i] * deltaTime;
+            py[i] += pvy[i] * deltaTime;
+            pAge[i] += deltaTime;
+        }
+    }
+
+    /**
+     * Removes every bullet that has exceeded its lifespan or left the despawn bounds.
+     * @return the number of bullets removed
+     */
+    public int removeExpired() {
+        if (isParallel(size)) {
+            return removeExpiredInParallel();
+        }
+        int removed = 0;
+        int i = 0;
+        while (i < size) {
+            if (isDoomed(i)) {
+                removeDoomed(i);
+                removed++;
+            } else {
+                i++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Finds the bullets to remove in parallel, chunk by chunk, then removes
+     * them on this thread from the highest index down. Every slot above the
+     * one being removed then holds a live bullet, so the last bullet, which
+     * swap-removal moves down, is always one that stays.
+     * @return the number of bullets removed
+     */
+    private int removeExpiredInParallel() {
+        final int chunks = chunkCount(size);
+        if (doomedByChunk.length < chunks) {
+            doomedByChunk = Arrays.copyOf(doomedByChunk, chunks);
+            doomedCounts = new int[chunks];
+        }
+        pool.invoke(new ChunkTask(this, 0, chunks, 0, true));
+
+        int removed = 0;
+        for (int chunk = chunks - 1; chunk >= 0; chunk--) {
+            final int[] doomed = doomedByChunk[chunk];
+            for (int d = doomedCounts[chunk] - 1; d >= 0; d--) {
+                removeDoomed(doomed[d]);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Records which bullets in one chunk are to be removed, in ascending order.
+     * Runs on a pool thread and only writes the chunk's own entries.
+     * @param chunk the chunk index
+     */
+    private void findDoomed(int chunk) {
+        final int from = chunk * CHUNK_SIZE;
+        final int to = Math.min(size, from + CHUNK_SIZE);
+        int[] doomed = doomedByChunk[chunk];
+        if (doomed == null) {
+            doomed = new int[16];
+        }
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (isDoomed(i)) {
+                if (count == doomed.length) {
+                    doomed = Arrays.copyOf(doomed, Math.min(CHUNK_SIZE, count * 2));
+                }
+                doomed[count++] = i;
+            }
+        }
+        doomedByChunk[chunk] = doomed;
+        doomedCounts[chunk] = count;
+    }
+
+    private boolean isDoomed(int i) {
+        return age[i] >= lifespan[i]
+                || x[i] < despawnLeft || x[i] > despawnRight || y[i] < despawnTop || y[i] > despawnBottom;
+    }
+
+    /**
+     * Removes a bullet that is to go, counting why.
+     * @param i the bullet index
+     */
+    private void removeDoomed(int i) {
+        if (age[i] >= lifespan[i]) {
+            expiredCount++;
+        } else {
+            despawnedCount++;
+        }
+        remove(i);
+    }
+
+    /**
+     * Sets the pool that parallel steps run on.
+     * @param forkJoinPool the pool; the common pool by default
+     */
+    public void setPool(ForkJoinPool forkJoinPool) {
+        this.pool = forkJoinPool;
+    }
+
+    /**
+     * Sets the number of live bullets from which steps run in parallel, on a pool
+     * with more than one worker. Below it, splitting the work costs more than it saves.
+     * @param threshold the bullet count; Integer.MAX_VALUE always runs on the calling thread
+     */
+    public void setParallelThreshold(int threshold) {
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Decides whether to split a pass. A pool with one worker only adds overhead, so it never does.
+     * @param n the live bullet count
+     * @return true to run the pass in parallel
+     */
+    private boolean isParallel(int n) {
+        return n >= parallelThreshold && pool.getParallelism() > 1;
+    }
+
+    private static int chunkCount(int n) {
+        return (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Moves and ages every bullet, then removes the expired ones.
+     * @param deltaTime the time step (in seconds)
+     * @return the number of bullets removed
+     */
+    public int step(double deltaTime) {
+        integrate(deltaTime);
+        return removeExpired();
+    }
+
+    /**
+     * Removes one bullet by moving the last bullet into its slot.
+     * @param i the index of the bullet to remove
+     */
+    public void remove(int i) {
+        int last = --size;
+        if (grid != null) {
+            grid.remove(i);
+            if (i != last) {
+                grid.relabel(last, i);
+            }
+        }
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        age[i] = age[last];
+        lifespan[i] = lifespan[last];
+        radius[i] = radius[last];
+    }
+
+    /**
+     * Removes every bullet.
+     */
+    public void clear() {
+        size = 0;
+        if (grid != null) {
+            grid.clear();
+        }
+    }
+
+    /**
+     * Makes another field hold the same bullets as this one, for handing a
+     * copy of the state to another thread. The copy's despawn bounds and
+     * counters are left alone.
+     * @param target the field to overwrite, which must not have a grid
+     */
+    public void copyTo(BulletField target) {
+        if (target.x.length < size) {
+            target.x = new double[x.length];
+            target.y = new double[x.length];
+            target.vx = new double[x.length];
+            target.vy = new double[x.length];
+            target.age = new double[x.length];
+            target.lifespan = new double[x.length];
+            target.radius = new double[x.length];
+        }
+        System.arraycopy(x, 0, target.x, 0, size);
+        System.arraycopy(y, 0, target.y, 0, size);
+        System.arraycopy(vx, 0, target.vx, 0, size);
+        System.arraycopy(vy, 0, target.vy, 0, size);
+        System.arraycopy(age, 0, target.age, 0, size);
+        System.arraycopy(lifespan, 0, target.lifespan, 0, size);
+        System.arraycopy(radius, 0, target.radius, 0, size);
+        target.size = size;
+        target.maxRadius = maxRadius;
+    }
+
+    /**
+     * Removes bullets as soon as their centre leaves a rectangle, such as the world plus a margin.
+     * @param left the left edge of the rectangle
+     * @param top the top edge of the rectangle
+     * @param right the right edge of the rectangle
+     * @param bottom the bottom edge of the rectangle
+     */
+    public void setDespawnBounds(double left, double top, double right, double bottom) {
+        this.despawnLeft = left;
+        this.despawnTop = top;
+        this.despawnRight = right;
+        this.despawnBottom = bottom;
+    }
+
+    /**
+     * Gets the number of bullets removed so far because their lifespan ran out.
+     * @return the expired bullet count
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * Gets the number of bullets removed so far because they left the despawn bounds.
+     * @return the despawned bullet count
+     */
+    public long getDespawnedCount() {
+        return despawnedCount;
+    }
+
+    /**
+     * Keeps every bullet in a grid from now on, starting with the live ones.
+     * @param spatialGrid an empty grid covering the world, used by this field only
+     */
+    public void attachGrid(SpatialHashGrid spatialGrid) {
+        this.grid = spatialGrid;
+        for (int i = 0; i < size; i++) {
+            spatialGrid.insert(i, x[i], y[i]);
+        }
+    }
+
+    /**
+     * Finds every bullet whose circle overlaps a rectangle, such as the player's bounds.
+     * Uses the grid if one is attached, or tests every bullet otherwise.
+     * The field must not be changed during the call.
+     * @param left the left edge of the rectangle
+     * @param top the top edge of the rectangle
+     * @param right the right edge of the rectangle
+     * @param bottom the bottom edge of the rectangle
+     * @param action receives the index of each bullet that hits
+     */
+    public void forEachHit(double left, double top, double right, double bottom, IntConsumer action) {
+        if (grid == null) {
+            for (int i = 0; i < size; i++) {
+                if (hits(i, left, top, right, bottom)) {
+                    action.accept(i);
+                }
+            }
+            return;
+        }
+        queryLeft = left;
+        queryTop = top;
+        queryRight = right;
+        queryBottom = bottom;
+        queryAction = action;
+        // A bullet centred up to one radius outside the rectangle can still touch it
+        grid.query(left - maxRadius, top - maxRadius, right + maxRadius, bottom + maxRadius, candidateTest);
+        queryAction = null;
+    }
+
+    /**
+     * Removes every bullet whose circle overlaps a rectangle.
+     * @param left the left edge of the rectangle
+     * @param top the top edge of the rectangle
+     * @param right the right edge of the rectangle
+     * @param bottom the bottom edge of the rectangle
+     * @return the number of bullets removed
+     */
+    public int removeHits(double left, double top, double right, double bottom) {
+        hitCount = 0;
+        forEachHit(left, top, right, bottom, hitCollector);
+        // Highest index first, so each swap-remove only moves a bullet that did not hit
+        Arrays.sort(hits, 0, hitCount);
+        for (int h = hitCount - 1; h >= 0; h--) {
+            remove(hits[h]);
+        }
+        return hitCount;
+    }
+
+    /**
+     * Tests one bullet against a rectangle, circle against box.
+     * @param i the bullet index
+     * @param left the left edge of the rectangle
+     * @param top the top edge of the rectangle
+     * @param right the right edge of the rectangle
+     * @param bottom the bottom edge of the rectangle
+     * @return true if they overlap
+     */
+    private boolean hits(int i, double left, double top, double right, double bottom) {
+        double dx = x[i] - Math.max(left, Math.min(x[i], right));
+        double dy = y[i] - Math.max(top, Math.min(y[i], bottom));
+        return dx * dx + dy * dy <= radius[i] * radius[i];
+    }
+
+    private void testCandidate(int i) {
+        if (hits(i, queryLeft, queryTop, queryRight, queryBottom)) {
+            queryAction.accept(i);
+        }
+    }
+
+    private void addHit(int i) {
+        if (hitCount == hits.length) {
+            hits = Arrays.copyOf(hits, hitCount * 2);
+        }
+        hits[hitCount++] = i;
+    }
+
+    /**
+     * Gets the number of live bullets.
+     * @return the bullet count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a bullet's x-coordinate.
+     * @param i the bullet index
+     * @return the x-coordinate
+     */
+    public double getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Gets a bullet's y-coordinate.
+     * @param i the bullet index
+     * @return the y-coordinate
+     */
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Gets a bullet's horizontal velocity.
+     * @param i the bullet index
+     * @return the x velocity (in pixels per second)
+     */
+    public double getVelocityX(int i) {
+        return vx[i];
+    }
+
+    /**
+     * Gets a bullet's vertical velocity.
+     * @param i the bullet index
+     * @return the y velocity (in pixels per second)
+     */
+    public double getVelocityY(int i) {
+        return vy[i];
+    }
+
+    /**
+     * Gets a bullet's radius.
+     * @param i the bullet index
+     * @return the radius
+     */
+    public double getRadius(int i) {
+        return radius[i];
+    }
+
+    /**
+     * Gets the time a bullet has been alive.
+     * @param i the bullet index
+     * @return the age (in seconds)
+     */
+    public double getAge(int i) {
+        return age[i];
+    }
+
+    /**
+     * Integrates or scans a range of chunks, splitting it in half until one chunk is left.
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private static final class ChunkTask extends RecursiveAction {
+        private final BulletField field;
+        private final int fromChunk;
+        private final int toChunk;
+        private final double deltaTime;
+        private final boolean scan;
+
+        /**
+         * Creates a task.
+         * @param field the field
+         * @param fromChunk the first chunk
+         * @param toChunk the chunk after the last
+         * @param deltaTime the time step when integrating (in seconds)
+         * @param scan true to find doomed bullets, false to integrate
+         */
+        ChunkTask(BulletField field, int fromChunk, int toChunk, double deltaTime, boolean scan) {
+            this.field = field;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.deltaTime = deltaTime;
+            this.scan = scan;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new ChunkTask(field, fromChunk, middle, deltaTime, scan),
+                        new ChunkTask(field, middle, toChunk, deltaTime, scan));
+            } else if (scan) {
+                field.findDoomed(fromChunk);
+            } else {
+                int from = fromChunk * CHUNK_SIZE;
+                field.integrate(from, Math.min(field.size, from + CHUNK_SIZE), deltaTime);
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        age = Arrays.copyOf(age, capacity);
+        lifespan = Arrays.copyOf(lifespan, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+    }
+}
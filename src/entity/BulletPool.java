@@ -0,0 +1,156 @@
+package entity;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+/**
+ * Recycles the Circle nodes that bullets are drawn with, so that spawning
+ * and despawning a warm pool allocates nothing.
+ *
+ * A miss allocates a batch of nodes at once, as set by the growth step, and
+ * keeps the spares idle. Nodes released while the pool already holds its cap
+ * of idle nodes are left to the garbage collector.
+ * A pool belongs to the thread that runs the game loop and is not thread-safe.
+ */
+public class BulletPool {
+
+    /** Idle nodes created up front by the default pool. */
+    public static final int DEFAULT_PREWARM = 512;
+
+    /** Nodes allocated per miss by the default pool. */
+    public static final int DEFAULT_GROW_BY = 64;
+
+    /** Most idle nodes kept by the default pool. */
+    public static final int DEFAULT_MAX_IDLE = 8192;
+
+    private final int growBy;
+    private final int maxIdle;
+    private Circle[] idle;
+    private int idleCount;
+
+    private long hits;
+    private long misses;
+    private long allocated;
+    private long dropped;
+
+    /**
+     * Creates a pool with the default sizes.
+     */
+    public BulletPool() {
+        this(DEFAULT_PREWARM, DEFAULT_GROW_BY, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * Creates a pool.
+     * @param prewarm the number of idle nodes to create now
+     * @param growBy the number of nodes to allocate on a miss, at least one
+     * @param maxIdle the most idle nodes to keep
+     */
+    public BulletPool(int prewarm, int growBy, int maxIdle) {
+        if (growBy < 1 || maxIdle < 0 || prewarm < 0) {
+            throw new IllegalArgumentException("Invalid pool sizes: prewarm " + prewarm
+                    + ", growBy " + growBy + ", maxIdle " + maxIdle);
+        }
+        this.growBy = growBy;
+        this.maxIdle = maxIdle;
+        this.idle = new Circle[Math.max(16, Math.min(maxIdle, Math.max(prewarm, growBy)))];
+        for (int i = 0; i < Math.min(prewarm, maxIdle); i++) {
+            idle[idleCount++] = newCircle();
+        }
+    }
+
+    /**
+     * Takes a node from the pool, or allocates more on a miss, and places it.
+     * @param x the x-coordinate of the bullet's center
+     * @param y the y-coordinate of the bullet's center
+     * @param radius the radius of the bullet
+     * @return a bullet node ready to be added to the scene
+     */
+    public Circle acquire(double x, double y, double radius) {
+        Circle node;
+        if (idleCount > 0) {
+            hits++;
+            node = idle[--idleCount];
+            idle[idleCount] = null;
+        } else {
+            misses++;
+            node = newCircle();
+            // Allocate the rest of the batch as spares
+            for (int i = 1; i < growBy && idleCount < maxIdle; i++) {
+                push(newCircle());
+            }
+        }
+        node.setCenterX(x);
+        node.setCenterY(y);
+        node.setRadius(radius);
+        return node;
+    }
+
+    /**
+     * Returns a bullet node to the pool. It must already be out of the scene.
+     * @param node the node
+     */
+    public void release(Circle node) {
+        if (idleCount < maxIdle) {
+            push(node);
+        } else {
+            dropped++;
+        }
+    }
+
+    /**
+     * Gets the number of acquires served from idle nodes.
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of acquires that had to allocate.
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of nodes this pool has ever allocated.
+     * @return the allocation count
+     */
+    public long getAllocated() {
+        return allocated;
+    }
+
+    /**
+     * Gets the number of released nodes discarded because the pool was full.
+     * @return the drop count
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Gets the number of nodes waiting to be reused.
+     * @return the idle count
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    private void push(Circle node) {
+        if (idleCount == idle.length) {
+            Circle[] grown = new Circle[Math.min(maxIdle, idle.length * 2)];
+            System.arraycopy(idle, 0, grown, 0, idleCount);
+            idle = grown;
+        }
+        idle[idleCount++] = node;
+    }
+
+    private Circle newCircle() {
+        allocated++;
+        Circle node = new Circle(0, 0, 1);
+        node.setFill(Color.RED);
+        return node;
+    }
+}
@@ -0,0 +1,50 @@
+package entity;
+
+import world.Viewport;
+
+/**
+ * Draws the bullets of one or more fields each frame, as a pass separate
+ * from the simulation. A frame is one {@link #beginFrame()}, a
+ * {@link #draw(BulletField)} per field, and one {@link #endFrame()}.
+ * With a {@link Viewport} set, bullets outside it are skipped.
+ *
+ * Bullets move in a straight line, so drawing each one a little behind its
+ * simulated position, at its velocity times a lag, places it exactly where
+ * it was between the last two simulation steps.
+ */
+public interface BulletRenderer {
+
+    /**
+     * Starts drawing a frame.
+     */
+    void beginFrame();
+
+    /**
+     * Draws every live bullet of a field.
+     * @param field the field
+     */
+    void draw(BulletField field);
+
+    /**
+     * Finishes the frame, removing whatever was drawn last frame but not this one.
+     */
+    void endFrame();
+
+    /**
+     * Draws bullets where they were a given time before their simulated position, from the next draw on.
+     * @param lag the time (in seconds); 0 draws them where they are
+     */
+    void setLag(double lag);
+
+    /**
+     * Skips bullets outside a viewport from the next frame on.
+     * @param viewport the visible part of the world, or null to draw every bullet
+     */
+    void setViewport(Viewport viewport);
+
+    /**
+     * Gets the number of bullets skipped in the last frame because they were outside the viewport.
+     * @return the culled bullet count
+     */
+    int getCulledCount();
+}
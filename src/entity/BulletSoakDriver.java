@@ -0,0 +1,116 @@
+package entity;
+
+import java.lang.management.ManagementFactory;
+import world.Viewport;
+
+/**
+ * Runs the game's two bullet spawners headlessly for several simulated
+ * minutes at 60 frames per second and checks that the live bullet count and
+ * the number of bullets drawn reach a steady state instead of growing without
+ * bound. The spawners are only stepped, and a renderer that counts what it is
+ * asked to draw stands in for the scene graph, so no JavaFX class is touched.
+ * It also reports the bytes allocated per frame once warm.
+ */
+public final class BulletSoakDriver {
+
+    private static final double FRAME = 1.0 / 60;
+
+    private BulletSoakDriver() {
+    }
+
+    /**
+     * Runs the soak.
+     * @param args optionally the number of simulated minutes
+     */
+    public static void main(final String[] args) {
+        final int minutes = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        final CountingRenderer renderer = new CountingRenderer();
+        final BulletSpawner spawner1 = new BulletSpawner(0.5);
+        final BulletSpawner spawner2 = new BulletSpawner(1);
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().threadId();
+        long allocatedAtWarm = 0;
+        final double[] angles1 = {0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100, 110, 120, 130, 140, 150, 160, 170, 180};
+        final double[] angles2 = {-45, -135};
+
+        int peakAfterWarmup = 0;
+        int peakDrawnAfterWarmup = 0;
+        int peakDuringWarmup = 0;
+        final int frames = minutes * 60 * 60;
+        final int warmupFrames = 60 * 60; // Longer than any bullet's lifespan
+        for (int frame = 1; frame <= frames; frame++) {
+            spawner1.step(FRAME, 300, 0, 5, 10, 100, 0, angles1, 10);
+            spawner2.step(FRAME, 300, 800, 5, 10, 100, 0, angles2, 5);
+            renderer.beginFrame();
+            renderer.draw(spawner1.getField());
+            renderer.draw(spawner2.getField());
+            renderer.endFrame();
+
+            final int live = spawner1.getBulletCount() + spawner2.getBulletCount();
+            if (frame <= warmupFrames) {
+                peakDuringWarmup = Math.max(peakDuringWarmup, live);
+            } else {
+                peakAfterWarmup = Math.max(peakAfterWarmup, live);
+                peakDrawnAfterWarmup = Math.max(peakDrawnAfterWarmup, renderer.drawn);
+            }
+            if (frame == warmupFrames) {
+                allocatedAtWarm = threads.getThreadAllocatedBytes(thread);
+            }
+            if (frame % (60 * 60) == 0) {
+                final Runtime runtime = Runtime.getRuntime();
+                System.gc();
+                System.out.printf("minute %d: %d live bullets, %d drawn, %d KiB heap in use after GC%n",
+                        frame / 3600, live, renderer.drawn,
+                        (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+            }
+        }
+
+        final long allocatedWarm = threads.getThreadAllocatedBytes(thread) - allocatedAtWarm;
+        System.out.printf("%.0f bytes allocated per frame after warm-up%n",
+                (double) allocatedWarm / (frames - warmupFrames));
+
+        final boolean bounded = peakAfterWarmup <= peakDuringWarmup && peakDrawnAfterWarmup == peakAfterWarmup;
+        System.out.printf("peak live bullets: %d in the first minute, %d afterwards; %s%n",
+                peakDuringWarmup, peakAfterWarmup, bounded ? "bounded" : "GROWING");
+        if (!bounded) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Counts the bullets drawn each frame in place of drawing them.
+     */
+    private static final class CountingRenderer implements BulletRenderer {
+        private int drawing;
+        private int drawn; // Bullets drawn in the last finished frame
+
+        @Override
+        public void beginFrame() {
+            drawing = 0;
+        }
+
+        @Override
+        public void draw(final BulletField field) {
+            drawing += field.size();
+        }
+
+        @Override
+        public void endFrame() {
+            drawn = drawing;
+        }
+
+        @Override
+        public void setLag(final double lag) {
+        }
+
+        @Override
+        public void setViewport(final Viewport viewport) {
+        }
+
+        @Override
+        public int getCulledCount() {
+            return 0;
+        }
+    }
+}
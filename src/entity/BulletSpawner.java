@@ -1,40 +1,97 @@
 package entity;
 
 import javafx.scene.layout.Pane;
-import java.util.ArrayList;
-import java.util.List;
+import metrics.FrameMetrics;
 
 /**
  * Spawns and manages bullets in the game.
+ * Bullet state lives in a headless {@link BulletField}; {@link #step} advances it without touching
+ * the scene graph, and a {@link BulletRenderer} draws it in a separate pass.
+ *
+ * Threads: a spawner and its field belong to the thread that runs the
+ * simulation, which need not be the JavaFX Application Thread, and are not
+ * thread-safe. Only {@link #update} and {@link #getPool} touch the scene
+ * graph, and a spawner built without a pool creates none before then. A spawner
+ * stepped on another thread must only use {@link #step}; the JavaFX thread
+ * then draws a copy of the field made with {@link BulletField#copyTo} and
+ * never reads the spawner itself.
  */
 public class BulletSpawner {
 
     private double spawnRate;   // Time in seconds between each spawn
     private double timeSinceLastSpawn = 0;  // Time accumulator for spawn rate
-    private List<Bullet> bullets; // List of bullets to track
+    private final BulletField field = new BulletField(); // State of every live bullet
+    private BulletPool pool; // Created on first use by update, so step-only spawners never build nodes
+    private NodeBulletRenderer renderer; // Created by update for the pane it is given
+    private Pane rendererPane; // The pane the renderer draws in
+    private FrameMetrics metrics = FrameMetrics.disabled(); // Phase timings, recorded only when enabled
 
     /**
      * Constructor for BulletSpawner with a given spawn rate.
      * @param spawnRate the rate at which bullets spawn (in seconds)
      */
     public BulletSpawner(double spawnRate) {
+        this(spawnRate, null);
+    }
+
+    /**
+     * Constructor for BulletSpawner that draws its bullet nodes from a given pool.
+     * @param spawnRate the rate at which bullets spawn (in seconds)
+     * @param pool the pool used when this spawner renders its own nodes, which may be shared,
+     *             or null to create one the first time it is needed
+     */
+    public BulletSpawner(double spawnRate, BulletPool pool) {
         this.spawnRate = spawnRate;
-        this.bullets = new ArrayList<>();
+        this.pool = pool;
     }
 
     /**
-     * Adds a bullet to the list and the scene.
+     * Gets the pool this spawner recycles bullet nodes through, creating it if need be.
+     * Creating a pool builds Circle nodes, so call this on the JavaFX Application Thread.
+     * @return the pool
+     */
+    public BulletPool getPool() {
+        if (pool == null) {
+            pool = new BulletPool();
+        }
+        return pool;
+    }
+
+    /**
+     * Gets the simulated bullets.
+     * @return the field holding every live bullet
+     */
+    public BulletField getField() {
+        return field;
+    }
+
+    /**
+     * Reports spawn, update and cull timings to the given metrics.
+     * @param metrics the metrics of the loop that drives this spawner
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the number of live bullets.
+     * @return the bullet count
+     */
+    public int getBulletCount() {
+        return field.size();
+    }
+
+    /**
+     * Adds a bullet, taking its position, angle, speed, size and lifespan.
      * @param bullet the bullet to add
-     * @param camera the camera (pane) to add the bullet to
      */
-    public void addBullet(Bullet bullet, Pane camera) {
-        camera.getChildren().add(bullet.getBullet());  // Add the bullet to the scene
-        bullets.add(bullet);  // Add bullet to the list to keep track of it
+    public void addBullet(Bullet bullet) {
+        field.spawn(bullet.getX(), bullet.getY(), bullet.getAngle(), bullet.getSpeed(), bullet.getSize(),
+                bullet.getLifespan());
     }
 
     /**
      * Spawns bullets in a stream at specified angles.
-     * @param camera the camera (pane) to add the bullets to
      * @param x the x-coordinate where bullets will be spawned
      * @param y the y-coordinate where bullets will be spawned
      * @param bulletCount the number of bullets to spawn
@@ -42,21 +99,15 @@ public class BulletSpawner {
      * @param bulletSpeed the speed of each bullet
      * @param spawnAngle the starting angle of the first bullet
      * @param angles an array of angles for the bullet stream
+     * @param bulletDuration the lifespan of each bullet (in seconds)
      */
-    public void spawnStream(Pane camera, double x, double y, int bulletCount, int bulletSize, int bulletSpeed, double spawnAngle, double[] angles, double bulletDuration) {
-        for (double angle : angles) {
-            for (int i = 0; i < bulletCount; i++) {
-                // Create a bullet at the specified location, with specified angle, speed, and size
-                Bullet bullet = new Bullet(x, y, spawnAngle + angle, bulletSpeed, bulletSize, bulletDuration);
-                addBullet(bullet, camera);  // Add bullet to the scene and the list
-            }
-        }
+    public void spawnStream(double x, double y, int bulletCount, int bulletSize, int bulletSpeed, double spawnAngle, double[] angles, double bulletDuration) {
+        field.spawnStream(x, y, bulletCount, bulletSize, bulletSpeed, spawnAngle, angles, bulletDuration);
     }
 
     /**
-     * Updates the bullets' positions over time and handles spawn timing.
+     * Advances the bullets and handles spawn timing without touching the scene graph.
      * @param deltaTime the time elapsed since the last update (in seconds)
-     * @param camera the camera (pane) that holds the bullets
      * @param x the x-coordinate where bullets will be spawned
      * @param y the y-coordinate where bullets will be spawned
      * @param bulletCount the number of bullets to spawn
@@ -64,21 +115,61 @@ public class BulletSpawner {
      * @param bulletSpeed the speed of each bullet
      * @param spawnAngle the starting angle of the first bullet
      * @param angles an array of angles for the bullet stream
+     * @param bulletDuration the lifespan of each bullet (in seconds)
      */
-    public void update(double deltaTime, Pane camera, double x, double y, int bulletCount, int bulletSize, int bulletSpeed, double spawnAngle, double[] angles,double bulletDuration) {
+    public void step(double deltaTime, double x, double y, int bulletCount, int bulletSize, int bulletSpeed, double spawnAngle, double[] angles, double bulletDuration) {
         timeSinceLastSpawn += deltaTime;  // Accumulate time since last spawn
 
         // Check if it's time to spawn new bullets based on the spawn rate
+        long start = metrics.start();
         if (timeSinceLastSpawn >= spawnRate) {
             timeSinceLastSpawn = 0;  // Reset the spawn timer
 
             // Spawn bullets after the rate has passed
-            spawnStream(camera, x, y, bulletCount, bulletSize, bulletSpeed, spawnAngle, angles, bulletDuration);
+            spawnStream(x, y, bulletCount, bulletSize, bulletSpeed, spawnAngle, angles, bulletDuration);
         }
+        metrics.stop(FrameMetrics.Phase.SPAWN, start);
+
+        // Move every bullet
+        start = metrics.start();
+        field.integrate(deltaTime);
+        metrics.stop(FrameMetrics.Phase.UPDATE, start);
+
+        // Drop the ones that have expired
+        start = metrics.start();
+        field.removeExpired();
+        metrics.stop(FrameMetrics.Phase.CULL, start);
+    }
+
+    /**
+     * Advances the bullets, handles spawn timing, and draws the bullets as nodes in a pane.
+     * @param deltaTime the time elapsed since the last update (in seconds)
+     * @param camera the camera (pane) that holds the bullets; passing another pane moves them there
+     * @param x the x-coordinate where bullets will be spawned
+     * @param y the y-coordinate where bullets will be spawned
+     * @param bulletCount the number of bullets to spawn
+     * @param bulletSize the size of each bullet
+     * @param bulletSpeed the speed of each bullet
+     * @param spawnAngle the starting angle of the first bullet
+     * @param angles an array of angles for the bullet stream
+     * @param bulletDuration the lifespan of each bullet (in seconds)
+     */
+    public void update(double deltaTime, Pane camera, double x, double y, int bulletCount, int bulletSize, int bulletSpeed, double spawnAngle, double[] angles,double bulletDuration) {
+        step(deltaTime, x, y, bulletCount, bulletSize, bulletSpeed, spawnAngle, angles, bulletDuration);
 
-        // Update each bullet's position in the list
-        for (Bullet bullet : bullets) {
-            bullet.updatePosition(deltaTime, camera);
+        if (camera != rendererPane) {
+            if (renderer != null) {
+                // An empty frame takes the bullets out of the old pane
+                renderer.beginFrame();
+                renderer.endFrame();
+            }
+            renderer = new NodeBulletRenderer(camera, getPool());
+            rendererPane = camera;
         }
+        long start = metrics.start();
+        renderer.beginFrame();
+        renderer.draw(field);
+        renderer.endFrame();
+        metrics.stop(FrameMetrics.Phase.RENDER, start);
     }
 }
@@ -0,0 +1,93 @@
+package entity;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import world.Viewport;
+
+/**
+ * Draws every live bullet onto a single Canvas layer, so the scene graph holds
+ * one node however many bullets there are and layout, CSS and picking cost
+ * nothing per bullet.
+ *
+ * The canvas covers the world plus a margin on every side and sits in the
+ * camera pane, so it scrolls with the world. The fill is set once per frame
+ * and each bullet is one fillOval call into the same batch.
+ * Must be used on the JavaFX Application Thread.
+ */
+public class CanvasBulletRenderer implements BulletRenderer {
+
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private final double margin;
+    private Viewport viewport;
+    private double lag;
+    private int culled;
+
+    /**
+     * Creates a renderer and adds its canvas to a pane.
+     * @param camera the pane the canvas is added to
+     * @param worldWidth the width of the world
+     * @param worldHeight the height of the world
+     * @param margin how far outside the world bullets are still drawn
+     */
+    public CanvasBulletRenderer(Pane camera, double worldWidth, double worldHeight, double margin) {
+        this.margin = margin;
+        this.canvas = new Canvas(worldWidth + 2 * margin, worldHeight + 2 * margin);
+        this.canvas.setLayoutX(-margin);
+        this.canvas.setLayoutY(-margin);
+        this.canvas.setMouseTransparent(true);
+        this.graphics = canvas.getGraphicsContext2D();
+        camera.getChildren().add(canvas);
+    }
+
+    @Override
+    public void beginFrame() {
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        graphics.setFill(Color.RED);
+        culled = 0;
+    }
+
+    @Override
+    public void draw(BulletField field) {
+        for (int i = 0; i < field.size(); i++) {
+            double r = field.getRadius(i);
+            double x = field.getX(i) - field.getVelocityX(i) * lag;
+            double y = field.getY(i) - field.getVelocityY(i) * lag;
+            if (viewport != null && !viewport.isVisible(x, y, r)) {
+                culled++;
+                continue;
+            }
+            graphics.fillOval(x + margin - r, y + margin - r, 2 * r, 2 * r);
+        }
+    }
+
+    @Override
+    public void endFrame() {
+        // Everything was drawn into the canvas's command buffer; nothing to remove
+    }
+
+    @Override
+    public void setLag(double lag) {
+        this.lag = lag;
+    }
+
+    @Override
+    public void setViewport(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    @Override
+    public int getCulledCount() {
+        return culled;
+    }
+
+    /**
+     * Gets the canvas layer.
+     * @return the canvas
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+}
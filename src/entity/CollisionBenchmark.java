@@ -0,0 +1,70 @@
+package entity;
+
+import java.util.SplittableRandom;
+import world.SpatialHashGrid;
+
+/**
+ * Compares bullet-player collision checks through a {@link SpatialHashGrid}
+ * with testing every bullet, at 10k and 100k bullets spread over the
+ * 600x800 world. Each frame moves every bullet and then tests the player's
+ * 32x32 bounds; the grid pays to keep bullets in their cells as they move
+ * and saves on the query.
+ */
+public final class CollisionBenchmark {
+
+    private static final double WORLD_WIDTH = 600;
+    private static final double WORLD_HEIGHT = 800;
+    private static final double PLAYER_SIZE = 32;
+    private static final double FRAME = 1.0 / 60;
+    private static final int FRAMES = 600;
+
+    private CollisionBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        System.out.println("bullets   mode         query (us/frame)  step+query (ms/frame)  hits");
+        for (final int count : new int[] {10_000, 100_000}) {
+            for (int round = 0; round < 2; round++) {
+                // The first round warms the JIT up
+                final boolean print = round == 1;
+                run(count, false, print);
+                run(count, true, print);
+            }
+        }
+    }
+
+    private static void run(final int count, final boolean useGrid, final boolean print) {
+        final BulletField field = new BulletField(count);
+        if (useGrid) {
+            field.attachGrid(new SpatialHashGrid(WORLD_WIDTH, WORLD_HEIGHT, PLAYER_SIZE));
+        }
+        final SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < count; i++) {
+            field.spawn(random.nextDouble(WORLD_WIDTH), random.nextDouble(WORLD_HEIGHT), random.nextDouble(360),
+                    random.nextDouble(20, 60), 5, 1e9);
+        }
+
+        final long[] hits = new long[1];
+        long queryNanos = 0;
+        final long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            field.integrate(FRAME);
+            // The player sweeps across the world
+            final double px = (frame * 3.0) % (WORLD_WIDTH - PLAYER_SIZE);
+            final double py = (frame * 5.0) % (WORLD_HEIGHT - PLAYER_SIZE);
+            final long queryStart = System.nanoTime();
+            field.forEachHit(px, py, px + PLAYER_SIZE, py + PLAYER_SIZE, i -> hits[0]++);
+            queryNanos += System.nanoTime() - queryStart;
+        }
+        final long total = System.nanoTime() - start;
+
+        if (print) {
+            System.out.printf("%-9d %-12s %-17.1f %-22.3f %d%n", count, useGrid ? "grid" : "brute force",
+                    queryNanos / 1e3 / FRAMES, total / 1e6 / FRAMES, hits[0]);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package entity;
+
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Circle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import world.Viewport;
+
+/**
+ * Draws each live bullet as its own Circle node in a pane.
+ *
+ * Nodes are slots: the n-th bullet drawn in a frame reuses the n-th node,
+ * whose position is simply overwritten. Slots are added and removed in one
+ * batch per frame as the bullet count changes, and their Circle nodes come
+ * from and go back to a {@link BulletPool}. Culled bullets take
+ * no slot, so the node count follows what is on screen rather than what is alive.
+ * Must be used on the JavaFX Application Thread once the pane is showing.
+ */
+public class NodeBulletRenderer implements BulletRenderer {
+
+    private final Pane camera;
+    private final BulletPool pool;
+    private final List<Circle> slots = new ArrayList<>();
+    private final List<Node> addedNodes = new ArrayList<>(); // Reused each frame
+    private final Set<Node> removedNodes = Collections.newSetFromMap(new IdentityHashMap<>()); // Reused each frame
+    private Viewport viewport;
+    private double lag;
+    private int used;
+    private int culled;
+
+    /**
+     * Creates a renderer that draws into a pane.
+     * @param camera the pane the bullets are drawn in
+     * @param pool the pool that supplies bullet nodes
+     */
+    public NodeBulletRenderer(Pane camera, BulletPool pool) {
+        this.camera = camera;
+        this.pool = pool;
+    }
+
+    @Override
+    public void beginFrame() {
+        used = 0;
+        culled = 0;
+    }
+
+    @Override
+    public void draw(BulletField field) {
+        for (int i = 0; i < field.size(); i++) {
+            double x = field.getX(i) - field.getVelocityX(i) * lag;
+            double y = field.getY(i) - field.getVelocityY(i) * lag;
+            if (viewport != null && !viewport.isVisible(x, y, field.getRadius(i))) {
+                culled++;
+                continue;
+            }
+            if (used < slots.size()) {
+                Circle slot = slots.get(used);
+                slot.setCenterX(x);
+                slot.setCenterY(y);
+                if (slot.getRadius() != field.getRadius(i)) {
+                    slot.setRadius(field.getRadius(i));
+                }
+            } else {
+                Circle slot = pool.acquire(x, y, field.getRadius(i));
+                slots.add(slot);
+                addedNodes.add(slot);
+            }
+            used++;
+        }
+    }
+
+    @Override
+    public void endFrame() {
+        if (!addedNodes.isEmpty()) {
+            camera.getChildren().addAll(addedNodes);
+            addedNodes.clear();
+        }
+        if (used < slots.size()) {
+            for (int i = used; i < slots.size(); i++) {
+                removedNodes.add(slots.get(i));
+            }
+            camera.getChildren().removeAll(removedNodes);
+            removedNodes.clear();
+            for (int i = slots.size() - 1; i >= used; i--) {
+                pool.release(slots.remove(i));
+            }
+        }
+    }
+
+    @Override
+    public void setLag(double lag) {
+        this.lag = lag;
+    }
+
+    @Override
+    public void setViewport(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    @Override
+    public int getCulledCount() {
+        return culled;
+    }
+
+    /**
+     * Gets the number of bullet nodes in the pane.
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return slots.size();
+    }
+}
@@ -0,0 +1,115 @@
+package entity;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures a {@link BulletField} step (integration plus the expiry pass) at
+ * hundreds of thousands of bullets, on the calling thread and on fork-join
+ * pools of 1, 2, 4 and 8 workers. Bullets expire throughout, and each frame
+ * respawns as many as were removed, so the count holds steady and every
+ * frame exercises compaction. Each parallel run is also checked against the
+ * sequential one for the same surviving bullets. A pool of one worker runs
+ * sequentially by design, so that column measures the dispatch check only.
+ */
+public final class ParallelBulletBenchmark {
+
+    private static final double FRAME = 1.0 / 60;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 300;
+    private static final int[] PARALLELISM = {1, 2, 4, 8};
+
+    private ParallelBulletBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("bullets    sequential  pool 1    pool 2    pool 4    pool 8    (ms/step)  same bullets");
+        for (final int count : new int[] {100_000, 500_000, 1_000_000}) {
+            final BulletField reference = newField(count);
+            reference.setParallelThreshold(Integer.MAX_VALUE);
+            final double sequential = time(reference, count);
+
+            final StringBuilder row = new StringBuilder(String.format("%-10d %-11.3f ", count, sequential));
+            boolean same = true;
+            for (final int parallelism : PARALLELISM) {
+                final ForkJoinPool pool = new ForkJoinPool(parallelism);
+                final BulletField field = newField(count);
+                field.setPool(pool);
+                field.setParallelThreshold(0);
+                row.append(String.format("%-9.3f ", time(field, count)));
+                same &= sameBullets(reference, field);
+                pool.shutdown();
+            }
+            System.out.println(row.append("           ").append(same));
+        }
+    }
+
+    private static BulletField newField(final int count) {
+        final BulletField field = new BulletField(count);
+        final SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < count; i++) {
+            spawn(field, random);
+        }
+        return field;
+    }
+
+    private static void spawn(final BulletField field, final SplittableRandom random) {
+        field.spawn(random.nextDouble(600), random.nextDouble(800), random.nextDouble(360), 100, 5,
+                random.nextDouble(1, 5));
+    }
+
+    /**
+     * Steps a field, respawning what expires from a fixed seed.
+     * @return the mean step time in milliseconds
+     */
+    private static double time(final BulletField field, final int count) {
+        final SplittableRandom random = new SplittableRandom(13);
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            stepAndRefill(field, count, random);
+        }
+        long total = 0;
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+            final long start = System.nanoTime();
+            field.step(FRAME);
+            total += System.nanoTime() - start;
+            refill(field, count, random);
+        }
+        return total / 1e6 / MEASURED_FRAMES;
+    }
+
+    private static void stepAndRefill(final BulletField field, final int count, final SplittableRandom random) {
+        field.step(FRAME);
+        refill(field, count, random);
+    }
+
+    private static void refill(final BulletField field, final int count, final SplittableRandom random) {
+        while (field.size() < count) {
+            spawn(field, random);
+        }
+    }
+
+    /**
+     * Compares two fields as sets of bullets, since parallel compaction leaves them in another order.
+     */
+    private static boolean sameBullets(final BulletField a, final BulletField b) {
+        if (a.size() != b.size() || a.getExpiredCount() != b.getExpiredCount()) {
+            return false;
+        }
+        final double[][] keys = new double[2][];
+        for (final BulletField field : new BulletField[] {a, b}) {
+            final double[] key = new double[field.size()];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = field.getX(i) * 1e4 + field.getY(i) + field.getAge(i);
+            }
+            Arrays.sort(key);
+            keys[field == a ? 0 : 1] = key;
+        }
+        return Arrays.equals(keys[0], keys[1]);
+    }
+}
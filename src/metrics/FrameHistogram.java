@@ -0,0 +1,166 @@
+package metrics;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of durations in nanoseconds with log-linear
+ * buckets, in the style of HdrHistogram: every power of two is split into 32
+ * sub-buckets, so any recorded value is reported to within about 3%.
+ *
+ * Recording is a few shifts and an array increment and never allocates.
+ * Instances are not thread-safe; one thread records, and other threads read
+ * through {@link #copy()}.
+ */
+public final class FrameHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Values at or above this many nanoseconds (about 68 s) share the last bucket. */
+    private static final long MAX_TRACKABLE = (1L << 36) - 1;
+
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE) + 1;
+
+    private final long[] counts;
+    private long totalCount;
+    private long totalNanos;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public FrameHistogram() {
+        this.counts = new long[BUCKETS];
+    }
+
+    private FrameHistogram(final FrameHistogram source) {
+        this.counts = source.counts.clone();
+        this.totalCount = source.totalCount;
+        this.totalNanos = source.totalNanos;
+        this.min = source.min;
+        this.max = source.max;
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration; negative values count as zero
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts[indexOf(Math.min(value, MAX_TRACKABLE))]++;
+        totalCount++;
+        totalNanos += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Discards every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalNanos = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Copies the histogram, for handing to another thread.
+     *
+     * @return an independent copy
+     */
+    public FrameHistogram copy() {
+        return new FrameHistogram(this);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return the mean in nanoseconds, or 0 if empty
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * Gets the smallest recorded value.
+     *
+     * @return the minimum in nanoseconds, or 0 if empty
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest recorded value, exactly.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the value at a percentile.
+     *
+     * @param percentile from 0 to 100
+     * @return the upper bound of the bucket holding that percentile, in
+     *         nanoseconds, never more than the maximum; 0 if empty
+     */
+    public long getPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param value a non-negative value no larger than MAX_TRACKABLE
+     * @return the bucket index
+     */
+    private static int indexOf(final long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the largest value that falls into a bucket.
+     *
+     * @param index the bucket index
+     * @return the bucket's upper bound
+     */
+    private static long highestEquivalent(final int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long lowest = (long) ((index & (SUB_BUCKETS - 1)) | SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
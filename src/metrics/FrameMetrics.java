@@ -0,0 +1,305 @@
+package metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Per-frame timings and entity counts for a game loop.
+ *
+ * The loop calls {@link #beginFrame(long)} and {@link #endFrame()} around
+ * each frame and brackets its phases with {@link #start()} and
+ * {@link #stop(Phase, long)}. Time spent in a phase is summed over the frame
+ * and recorded once per frame, so a phase may run several times a frame.
+ * Nothing here allocates per frame. Once per window the totals are copied
+ * into an immutable {@link Snapshot}, handed to every listener and reset.
+ *
+ * Recording is confined to the loop's thread. Other threads read snapshots.
+ */
+public final class FrameMetrics {
+
+    /**
+     * The timed phases of a frame.
+     */
+    public enum Phase {
+        SPAWN,
+        UPDATE,
+        CULL,
+        COLLIDE,
+        RENDER
+    }
+
+    /**
+     * The counts sampled each frame.
+     */
+    public enum Gauge {
+        LIVE_BULLETS,
+        SCENE_NODES,
+        PLAYER_HITS,
+        CULLED_BULLETS,
+        DESPAWNED_BULLETS,
+        SIMULATION_STEPS
+    }
+
+    /** The default snapshot window. */
+    public static final long DEFAULT_WINDOW_NANOS = 1_000_000_000L;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final FrameHistogram frameTimes = new FrameHistogram();
+    private final FrameHistogram workTimes = new FrameHistogram();
+    private final FrameHistogram[] phaseTimes = new FrameHistogram[PHASES.length];
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final long[] gauges = new long[Gauge.values().length];
+    private final CopyOnWriteArrayList<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    private long frameStart;
+    private long windowStart;
+    private long windowFrames;
+    private volatile Snapshot latest;
+
+    /**
+     * Creates metrics that publish a snapshot every second.
+     */
+    public FrameMetrics() {
+        this(true, DEFAULT_WINDOW_NANOS);
+    }
+
+    /**
+     * Creates metrics.
+     *
+     * @param enabled     whether to record anything; disabled metrics cost one branch per call
+     * @param windowNanos how often to publish a snapshot
+     */
+    public FrameMetrics(final boolean enabled, final long windowNanos) {
+        this.enabled = enabled;
+        this.windowNanos = windowNanos;
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseTimes[i] = new FrameHistogram();
+        }
+    }
+
+    /**
+     * Creates metrics that record nothing, for code that is not being measured.
+     *
+     * @return disabled metrics
+     */
+    public static FrameMetrics disabled() {
+        return new FrameMetrics(false, DEFAULT_WINDOW_NANOS);
+    }
+
+    /**
+     * Registers a listener for published snapshots. Listeners run on the
+     * loop's thread and must hand any slow work to another thread.
+     *
+     * @param listener receives each snapshot
+     */
+    public void addListener(final Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Marks the start of a frame and records the time since the last one.
+     *
+     * @param now the frame time in {@link System#nanoTime()} units
+     */
+    public void beginFrame(final long now) {
+        if (!enabled) {
+            return;
+        }
+        if (frameStart != 0) {
+            frameTimes.record(now - frameStart);
+        } else {
+            windowStart = now;
+        }
+        frameStart = now;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the start time to pass to stop()
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stops timing a phase and adds the time to this frame's total for it.
+     *
+     * @param phase the phase
+     * @param start the value returned by start()
+     */
+    public void stop(final Phase phase, final long start) {
+        if (enabled) {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Sets a count for this frame.
+     *
+     * @param gauge the count
+     * @param value its value
+     */
+    public void setGauge(final Gauge gauge, final long value) {
+        gauges[gauge.ordinal()] = value;
+    }
+
+    /**
+     * Gets a count as last set.
+     *
+     * @param gauge the count
+     * @return its value
+     */
+    public long getGauge(final Gauge gauge) {
+        return gauges[gauge.ordinal()];
+    }
+
+    /**
+     * Marks the end of a frame, recording the time spent in it and each of
+     * its phases, and publishes a snapshot if the window has passed.
+     */
+    public void endFrame() {
+        if (!enabled || frameStart == 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        workTimes.record(now - frameStart);
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseTimes[i].record(phaseNanos[i]);
+            phaseNanos[i] = 0;
+        }
+        windowFrames++;
+
+        if (now - windowStart >= windowNanos) {
+            publish(now);
+        }
+    }
+
+    /**
+     * Gets the most recently published snapshot.
+     *
+     * @return the snapshot, or null before the first window ends
+     */
+    public Snapshot getLatest() {
+        return latest;
+    }
+
+    /**
+     * Copies the window into a snapshot, hands it out and starts a new window.
+     *
+     * @param now the end of the window
+     */
+    private void publish(final long now) {
+        final Map<Phase, FrameHistogram> phases = new EnumMap<>(Phase.class);
+        for (final Phase phase : PHASES) {
+            phases.put(phase, phaseTimes[phase.ordinal()].copy());
+            phaseTimes[phase.ordinal()].reset();
+        }
+        final Snapshot snapshot = new Snapshot(System.currentTimeMillis(), now - windowStart, windowFrames,
+                frameTimes.copy(), workTimes.copy(), phases, gauges.clone());
+        frameTimes.reset();
+        workTimes.reset();
+        windowFrames = 0;
+        windowStart = now;
+
+        latest = snapshot;
+        for (final Consumer<Snapshot> listener : listeners) {
+            listener.accept(snapshot);
+        }
+    }
+
+    /**
+     * The metrics of one window, safe to read from any thread.
+     */
+    public static final class Snapshot {
+        private final long timestampMillis;
+        private final long windowNanos;
+        private final long frames;
+        private final FrameHistogram frameTimes;
+        private final FrameHistogram workTimes;
+        private final Map<Phase, FrameHistogram> phaseTimes;
+        private final long[] gauges;
+
+        private Snapshot(final long timestampMillis, final long windowNanos, final long frames,
+                         final FrameHistogram frameTimes, final FrameHistogram workTimes,
+                         final Map<Phase, FrameHistogram> phaseTimes, final long[] gauges) {
+            this.timestampMillis = timestampMillis;
+            this.windowNanos = windowNanos;
+            this.frames = frames;
+            this.frameTimes = frameTimes;
+            this.workTimes = workTimes;
+            this.phaseTimes = phaseTimes;
+            this.gauges = gauges;
+        }
+
+        /**
+         * Gets when the window ended.
+         *
+         * @return the wall-clock time in epoch milliseconds
+         */
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        /**
+         * Gets the number of frames in the window.
+         *
+         * @return the frame count
+         */
+        public long getFrames() {
+            return frames;
+        }
+
+        /**
+         * Gets the frame rate over the window.
+         *
+         * @return frames per second
+         */
+        public double getFramesPerSecond() {
+            return windowNanos == 0 ? 0 : frames * 1e9 / windowNanos;
+        }
+
+        /**
+         * Gets the times between the starts of consecutive frames.
+         *
+         * @return a private copy of the histogram
+         */
+        public FrameHistogram getFrameTimes() {
+            return frameTimes.copy();
+        }
+
+        /**
+         * Gets the times spent inside each frame.
+         *
+         * @return a private copy of the histogram
+         */
+        public FrameHistogram getWorkTimes() {
+            return workTimes.copy();
+        }
+
+        /**
+         * Gets the per-frame time spent in one phase.
+         *
+         * @param phase the phase
+         * @return a private copy of the histogram
+         */
+        public FrameHistogram getPhaseTimes(final Phase phase) {
+            return phaseTimes.get(phase).copy();
+        }
+
+        /**
+         * Gets a count as of the end of the window.
+         *
+         * @param gauge the count
+         * @return its value
+         */
+        public long getGauge(final Gauge gauge) {
+            return gauges[gauge.ordinal()];
+        }
+    }
+}
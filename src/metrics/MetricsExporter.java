@@ -0,0 +1,175 @@
+package metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Appends each published metrics snapshot to a file on a background thread,
+ * so file I/O never runs on the game loop.
+ *
+ * A file ending in {@code .json} gets one JSON object per line; any other
+ * file gets CSV rows under a header. All times are in milliseconds.
+ */
+public final class MetricsExporter implements Consumer<FrameMetrics.Snapshot>, AutoCloseable {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Path file;
+    private final boolean json;
+    private final ExecutorService writer;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param file the file to append to
+     */
+    public MetricsExporter(final Path file) {
+        this.file = file;
+        this.json = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a snapshot for writing and returns immediately.
+     *
+     * @param snapshot the snapshot
+     */
+    @Override
+    public void accept(final FrameMetrics.Snapshot snapshot) {
+        writer.execute(() -> {
+            try {
+                write(snapshot);
+            } catch (IOException e) {
+                System.err.println("Error writing metrics: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes any queued snapshots and stops the background thread.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final FrameMetrics.Snapshot snapshot) throws IOException {
+        final boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (json) {
+                out.write(toJson(snapshot));
+            } else {
+                if (fresh) {
+                    out.write(csvHeader());
+                    out.newLine();
+                }
+                out.write(toCsv(snapshot));
+            }
+            out.newLine();
+        }
+    }
+
+    private static String csvHeader() {
+        final StringBuilder header = new StringBuilder("timestamp,frames,fps");
+        appendHeader(header, "frame");
+        appendHeader(header, "work");
+        for (final FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            appendHeader(header, phase.name().toLowerCase(Locale.ROOT));
+        }
+        for (final FrameMetrics.Gauge gauge : FrameMetrics.Gauge.values()) {
+            header.append(',').append(gauge.name().toLowerCase(Locale.ROOT));
+        }
+        return header.toString();
+    }
+
+    private static void appendHeader(final StringBuilder header, final String name) {
+        header.append(',').append(name).append("_mean");
+        for (final double percentile : PERCENTILES) {
+            header.append(',').append(name).append("_p").append(label(percentile));
+        }
+        header.append(',').append(name).append("_max");
+    }
+
+    private static String toCsv(final FrameMetrics.Snapshot snapshot) {
+        final StringBuilder row = new StringBuilder(512)
+                .append(snapshot.getTimestampMillis()).append(',')
+                .append(snapshot.getFrames()).append(',')
+                .append(format(snapshot.getFramesPerSecond()));
+        appendCsv(row, snapshot.getFrameTimes());
+        appendCsv(row, snapshot.getWorkTimes());
+        for (final FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            appendCsv(row, snapshot.getPhaseTimes(phase));
+        }
+        for (final FrameMetrics.Gauge gauge : FrameMetrics.Gauge.values()) {
+            row.append(',').append(snapshot.getGauge(gauge));
+        }
+        return row.toString();
+    }
+
+    private static void appendCsv(final StringBuilder row, final FrameHistogram histogram) {
+        row.append(',').append(millis(histogram.getMean()));
+        for (final double percentile : PERCENTILES) {
+            row.append(',').append(millis(histogram.getPercentile(percentile)));
+        }
+        row.append(',').append(millis(histogram.getMax()));
+    }
+
+    private static String toJson(final FrameMetrics.Snapshot snapshot) {
+        final StringBuilder object = new StringBuilder(1024)
+                .append("{\"timestamp\":").append(snapshot.getTimestampMillis())
+                .append(",\"frames\":").append(snapshot.getFrames())
+                .append(",\"fps\":").append(format(snapshot.getFramesPerSecond()));
+        appendJson(object, "frame", snapshot.getFrameTimes());
+        appendJson(object, "work", snapshot.getWorkTimes());
+        for (final FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            appendJson(object, phase.name().toLowerCase(Locale.ROOT), snapshot.getPhaseTimes(phase));
+        }
+        for (final FrameMetrics.Gauge gauge : FrameMetrics.Gauge.values()) {
+            object.append(",\"").append(gauge.name().toLowerCase(Locale.ROOT)).append("\":")
+                    .append(snapshot.getGauge(gauge));
+        }
+        return object.append('}').toString();
+    }
+
+    private static void appendJson(final StringBuilder object, final String name, final FrameHistogram histogram) {
+        object.append(",\"").append(name).append("\":{\"mean\":").append(millis(histogram.getMean()));
+        for (final double percentile : PERCENTILES) {
+            object.append(",\"p").append(label(percentile)).append("\":")
+                    .append(millis(histogram.getPercentile(percentile)));
+        }
+        object.append(",\"max\":").append(millis(histogram.getMax())).append('}');
+    }
+
+    private static String label(final double percentile) {
+        return percentile == Math.rint(percentile)
+                ? Integer.toString((int) percentile)
+                : Double.toString(percentile).replace('.', '_');
+    }
+
+    private static String millis(final double nanos) {
+        return format(nanos / 1e6);
+    }
+
+    private static String format(final double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,80 @@
+package metrics;
+
+import java.util.Locale;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * An on-screen readout of the latest metrics snapshot. It is redrawn only
+ * when a snapshot is published, not every frame, and F3 shows or hides it.
+ */
+public final class MetricsOverlay {
+
+    /** The key that toggles the overlay. */
+    public static final KeyCode TOGGLE_KEY = KeyCode.F3;
+
+    private final Text text = new Text(8, 16, "");
+
+    /**
+     * Creates a hidden overlay that follows a metrics source.
+     *
+     * @param metrics the metrics to display; snapshots arrive on the loop's thread
+     */
+    public MetricsOverlay(final FrameMetrics metrics) {
+        text.setFont(Font.font("Monospaced", 12));
+        text.setFill(Color.DARKGREEN);
+        text.setMouseTransparent(true);
+        text.setManaged(false);
+        text.setVisible(false);
+        metrics.addListener(this::show);
+    }
+
+    /**
+     * Makes the toggle key show and hide the overlay in a scene.
+     *
+     * @param scene the scene
+     */
+    public void install(final Scene scene) {
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == TOGGLE_KEY) {
+                text.setVisible(!text.isVisible());
+            }
+        });
+    }
+
+    /**
+     * Gets the node to place above the game, outside any camera transform.
+     *
+     * @return the overlay node
+     */
+    public Node getNode() {
+        return text;
+    }
+
+    private void show(final FrameMetrics.Snapshot snapshot) {
+        if (!text.isVisible()) {
+            return;
+        }
+        final FrameHistogram frames = snapshot.getFrameTimes();
+        final StringBuilder lines = new StringBuilder(256).append(String.format(Locale.ROOT,
+                "%.1f fps  frame p50 %.2f  p99 %.2f  max %.2f ms%n",
+                snapshot.getFramesPerSecond(), frames.getPercentile(50) / 1e6,
+                frames.getPercentile(99) / 1e6, frames.getMax() / 1e6));
+        for (final FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            final FrameHistogram phaseTimes = snapshot.getPhaseTimes(phase);
+            lines.append(String.format(Locale.ROOT, "%-7s mean %.3f  p99 %.3f ms%n",
+                    phase.name().toLowerCase(Locale.ROOT), phaseTimes.getMean() / 1e6,
+                    phaseTimes.getPercentile(99) / 1e6));
+        }
+        for (final FrameMetrics.Gauge gauge : FrameMetrics.Gauge.values()) {
+            lines.append(gauge.name().toLowerCase(Locale.ROOT)).append(' ')
+                    .append(snapshot.getGauge(gauge)).append('\n');
+        }
+        text.setText(lines.toString());
+    }
+}
@@ -1,25 +1,53 @@
 package player;
 
-import javafx.animation.AnimationTimer;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.Scene;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents the player in the world.
+ *
+ * The player's position is simulation state, advanced in fixed steps by
+ * {@link #update(double)}; the rectangle and the camera only show it, and are
+ * set by {@link #render(double)} part of the way between the last two steps.
+ *
+ * Threads: the simulation may run on a thread other than the JavaFX
+ * Application Thread. Key events arrive on the JavaFX thread and only set
+ * bits in an atomic mask, which {@link #update(double)} reads. The position
+ * and everything else updated by {@link #update(double)} and {@link #move}
+ * belong to the thread that runs the simulation. The rectangle and the
+ * camera belong to the JavaFX thread, which sets them through
+ * {@link #render(double)} when it runs the simulation itself, or through
+ * {@link #showAt(double, double)} from a copy of the position when another
+ * thread does. {@link #enableControls} must be called on the JavaFX thread
+ * before the simulation starts.
  */
 public final class Player {
 
     private static final int PLAYER_WIDTH   = 32;
     private static final int PLAYER_HEIGHT  = 32;
-    private static final int PLAYER_SPEED   = 8;
+    private static final int PLAYER_SPEED   = 480; // Pixels per second; 8 px per frame at 60 fps
 
     private final Rectangle player;
-    private final Set<KeyCode> pressedKeys = new HashSet<>();
+    private static final int KEY_UP    = 1;
+    private static final int KEY_DOWN  = 1 << 1;
+    private static final int KEY_LEFT  = 1 << 2;
+    private static final int KEY_RIGHT = 1 << 3;
+
+    private final AtomicInteger heldKeys = new AtomicInteger(); // Written on the JavaFX thread, read by the simulation
+    private double x;
+    private double y;
+    private double previousX;
+    private double previousY;
+
+    // Set by enableControls
+    private Scene scene;
+    private Pane camera;
+    private double worldWidth;
+    private double worldHeight;
 
     /**
      * Initializes the player at a given position.
@@ -31,10 +59,14 @@ public final class Player {
         this.player = new Rectangle(PLAYER_WIDTH, PLAYER_HEIGHT, Color.BLUE);
         this.player.setX(startX);
         this.player.setY(startY);
+        this.x = startX;
+        this.y = startY;
+        this.previousX = startX;
+        this.previousY = startY;
     }
 
     /**
-     * Moves the player within the world boundaries.
+     * Moves the player within the world boundaries. The rectangle follows on the next render.
      *
      * @param dx          Change in X position.
      * @param dy          Change in Y position.
@@ -42,44 +74,153 @@ public final class Player {
      * @param worldHeight The height of the world.
      */
     public void move(final double dx, final double dy, final double worldWidth, final double worldHeight) {
-        final double newX = Math.max(0, Math.min(worldWidth - PLAYER_WIDTH, this.getPlayer().getX() + dx));
-        final double newY = Math.max(0, Math.min(worldHeight - PLAYER_HEIGHT, this.getPlayer().getY() + dy));
-
-        this.getPlayer().setX(newX);
-        this.getPlayer().setY(newY);
+        this.x = Math.max(0, Math.min(worldWidth - PLAYER_WIDTH, this.x + dx));
+        this.y = Math.max(0, Math.min(worldHeight - PLAYER_HEIGHT, this.y + dy));
     }
 
     /**
      * Enables controls for the player to move using WASD keys.
+     * Movement happens in {@link #update(double)} and the camera follows in {@link #render(double)}.
      * @param scene       The scene to listen for key presses.
      * @param worldWidth  The width of the world.
      * @param worldHeight The height of the world.
      * @param camera      The root Pane to move the camera.
      */
     public void enableControls(final Scene scene, final double worldWidth, final double worldHeight, final Pane camera) {
-        scene.setOnKeyPressed(event -> pressedKeys.add(event.getCode()));
-        scene.setOnKeyReleased(event -> pressedKeys.remove(event.getCode()));
-
-        new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                double dx = 0, dy = 0;
-
-                if (pressedKeys.contains(KeyCode.W)) dy -= PLAYER_SPEED;
-                if (pressedKeys.contains(KeyCode.S)) dy += PLAYER_SPEED;
-                if (pressedKeys.contains(KeyCode.A)) dx -= PLAYER_SPEED;
-                if (pressedKeys.contains(KeyCode.D)) dx += PLAYER_SPEED;
-
-                // Move player
-                move(dx, dy, worldWidth, worldHeight);
-
-                // Update camera to follow the player (unrestricted by boundaries)
-                final double offsetX = -getPlayer().getX() + scene.getWidth() / 2 - PLAYER_WIDTH / 2;
-                final double offsetY = -getPlayer().getY() + scene.getHeight() / 2 - PLAYER_HEIGHT / 2;
-                camera.setTranslateX(offsetX);
-                camera.setTranslateY(offsetY);
-            }
-        }.start();
+        this.scene = scene;
+        this.camera = camera;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        scene.setOnKeyPressed(event -> heldKeys.getAndAccumulate(keyBit(event.getCode()), (keys, bit) -> keys | bit));
+        scene.setOnKeyReleased(event -> heldKeys.getAndAccumulate(keyBit(event.getCode()), (keys, bit) -> keys & ~bit));
+    }
+
+    /**
+     * Advances the player by one simulation step, moving it by the keys held down.
+     * Does nothing until controls are enabled.
+     *
+     * @param deltaTime The step (in seconds).
+     */
+    public void update(final double deltaTime) {
+        previousX = x;
+        previousY = y;
+        if (scene == null) {
+            return;
+        }
+        final double distance = PLAYER_SPEED * deltaTime;
+        final int keys = heldKeys.get();
+        double dx = 0, dy = 0;
+
+        if ((keys & KEY_UP) != 0) dy -= distance;
+        if ((keys & KEY_DOWN) != 0) dy += distance;
+        if ((keys & KEY_LEFT) != 0) dx -= distance;
+        if ((keys & KEY_RIGHT) != 0) dx += distance;
+
+        // Move player
+        move(dx, dy, worldWidth, worldHeight);
+    }
+
+    /**
+     * Shows the player between its last two positions, and moves the camera to follow it.
+     *
+     * @param alpha How far to go from the previous position to the current one, from 0 to 1.
+     */
+    public void render(final double alpha) {
+        showAt(previousX + (x - previousX) * alpha, previousY + (y - previousY) * alpha);
+    }
+
+    /**
+     * Shows the player at a given position, and moves the camera to follow it.
+     *
+     * @param shownX The X position to show.
+     * @param shownY The Y position to show.
+     */
+    public void showAt(final double shownX, final double shownY) {
+        this.getPlayer().setX(shownX);
+        this.getPlayer().setY(shownY);
+
+        if (camera != null) {
+            // Update camera to follow the player (unrestricted by boundaries)
+            final double offsetX = -shownX + scene.getWidth() / 2 - PLAYER_WIDTH / 2;
+            final double offsetY = -shownY + scene.getHeight() / 2 - PLAYER_HEIGHT / 2;
+            camera.setTranslateX(offsetX);
+            camera.setTranslateY(offsetY);
+        }
+    }
+
+    /**
+     * Gets the simulated X position, which the rectangle may lag by up to one step.
+     *
+     * @return The left edge of the player.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the simulated Y position, which the rectangle may lag by up to one step.
+     *
+     * @return The top edge of the player.
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Gets the X position before the last step.
+     *
+     * @return The left edge of the player one step ago.
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * Gets the Y position before the last step.
+     *
+     * @return The top edge of the player one step ago.
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+
+    /**
+     * Gets the width of the player.
+     *
+     * @return The width.
+     */
+    public double getWidth() {
+        return PLAYER_WIDTH;
+    }
+
+    /**
+     * Gets the height of the player.
+     *
+     * @return The height.
+     */
+    public double getHeight() {
+        return PLAYER_HEIGHT;
+    }
+
+    /**
+     * Maps a movement key to its bit in the held-keys mask.
+     *
+     * @param code The key.
+     * @return The key's bit, or 0 if it does not move the player.
+     */
+    private static int keyBit(final KeyCode code) {
+        switch (code) {
+            case W:
+                return KEY_UP;
+            case S:
+                return KEY_DOWN;
+            case A:
+                return KEY_LEFT;
+            case D:
+                return KEY_RIGHT;
+            default:
+                return 0;
+        }
     }
 
     /**
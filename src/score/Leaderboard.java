@@ -0,0 +1,233 @@
+package score;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory top-K scores per game and per-day totals, rebuilt from the
+ * score log in one pass and then kept current as scores are saved.
+ *
+ * Updates are serialized; queries read immutable snapshots and never block.
+ */
+public final class Leaderboard {
+
+    /** The number of top scores kept per game by the shared leaderboard. */
+    public static final int DEFAULT_SIZE = 10;
+
+    /** Orders records by score, breaking ties in favour of the earlier record. */
+    static final Comparator<ScoreRecord> RANKING = Comparator
+            .comparingInt(ScoreRecord::getTotalScore)
+            .thenComparing(ScoreRecord::getTime, Comparator.reverseOrder());
+
+    private static Leaderboard shared;
+
+    private final int size;
+    private final Map<ScoreRecord.Game, PriorityQueue<ScoreRecord>> heaps = new EnumMap<>(ScoreRecord.Game.class);
+    private final Map<LocalDate, DailyTotals> days = new HashMap<>();
+    private volatile Map<ScoreRecord.Game, List<ScoreRecord>> topViews = new EnumMap<>(ScoreRecord.Game.class);
+
+    /**
+     * Creates an empty leaderboard.
+     *
+     * @param size the number of top scores kept per game
+     */
+    public Leaderboard(final int size) {
+        this.size = size;
+        for (final ScoreRecord.Game game : ScoreRecord.Game.values()) {
+            // Min-heap: the lowest kept score is evicted first
+            heaps.put(game, new PriorityQueue<>(size + 1, RANKING));
+            topViews.put(game, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Gets the leaderboard for the shared score journal, building it from
+     * the log on first use.
+     *
+     * @return the shared leaderboard
+     * @throws IOException if the log cannot be read
+     */
+    public static synchronized Leaderboard shared() throws IOException {
+        if (shared == null) {
+            final Leaderboard leaderboard = new Leaderboard(DEFAULT_SIZE);
+            try {
+                ScoreJournal.shared().subscribe(leaderboard::record, leaderboard::rebuild);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading scores", e);
+            }
+            shared = leaderboard;
+        }
+        return shared;
+    }
+
+    /**
+     * Adds everything in a score log: its compacted summaries, the top scores
+     * compaction kept and every score not compacted yet.
+     *
+     * @param file the live segment of the score log
+     * @throws IOException if the log cannot be read
+     */
+    public void rebuild(final Path file) throws IOException {
+        ScoreLog.read(file, new ScoreLog.Visitor() {
+            @Override
+            public void summary(final ScoreSummary summary) {
+                addSummary(summary);
+            }
+
+            @Override
+            public void retained(final ScoreRecord record) {
+                synchronized (Leaderboard.this) {
+                    offer(record);
+                }
+            }
+
+            @Override
+            public void record(final ScoreRecord record) {
+                Leaderboard.this.record(record);
+            }
+        });
+    }
+
+    /**
+     * Adds one score in O(log K).
+     *
+     * @param record the score
+     */
+    public synchronized void record(final ScoreRecord record) {
+        days.computeIfAbsent(record.getTime().toLocalDate(), day -> new DailyTotals()).add(record);
+        offer(record);
+    }
+
+    /**
+     * Adds the totals of compacted scores to their day.
+     *
+     * @param summary one game's totals for one day
+     */
+    public synchronized void addSummary(final ScoreSummary summary) {
+        days.computeIfAbsent(summary.getDay(), day -> new DailyTotals()).add(summary);
+    }
+
+    /**
+     * Offers a score to its game's top K without counting it in a day.
+     *
+     * @param record the score
+     */
+    private void offer(final ScoreRecord record) {
+        final PriorityQueue<ScoreRecord> heap = heaps.get(record.getGame());
+        if (heap.size() < size) {
+            heap.add(record);
+        } else if (RANKING.compare(record, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(record);
+        } else {
+            return;
+        }
+
+        // Only a change to the top K republishes its view
+        final List<ScoreRecord> view = new ArrayList<>(heap);
+        view.sort(RANKING.reversed());
+        final Map<ScoreRecord.Game, List<ScoreRecord>> views = new EnumMap<>(topViews);
+        views.put(record.getGame(), Collections.unmodifiableList(view));
+        topViews = views;
+    }
+
+    /**
+     * Gets the best scores for a game.
+     *
+     * @param game the game
+     * @return up to K records, highest score first
+     */
+    public List<ScoreRecord> top(final ScoreRecord.Game game) {
+        return topViews.get(game);
+    }
+
+    /**
+     * Gets the totals for one day.
+     *
+     * @param day the day
+     * @return a copy of that day's totals, all zero if nothing was saved
+     */
+    public synchronized DailyTotals getDay(final LocalDate day) {
+        final DailyTotals totals = days.get(day);
+        return totals != null ? totals.copy() : new DailyTotals();
+    }
+
+    /**
+     * Scores saved on one day, across both games.
+     */
+    public static final class DailyTotals {
+        private int records;
+        private long gamesPlayed;
+        private long totalScore;
+        private int bestScore;
+
+        void add(final ScoreRecord record) {
+            records++;
+            gamesPlayed += record.getGamesPlayed();
+            totalScore += record.getTotalScore();
+            bestScore = Math.max(bestScore, record.getTotalScore());
+        }
+
+        void add(final ScoreSummary summary) {
+            records += summary.getRecords();
+            gamesPlayed += summary.getGamesPlayed();
+            totalScore += summary.getTotalScore();
+            bestScore = Math.max(bestScore, summary.getBestScore());
+        }
+
+        DailyTotals copy() {
+            final DailyTotals copy = new DailyTotals();
+            copy.records = records;
+            copy.gamesPlayed = gamesPlayed;
+            copy.totalScore = totalScore;
+            copy.bestScore = bestScore;
+            return copy;
+        }
+
+        /**
+         * Gets the number of scores saved.
+         *
+         * @return the record count
+         */
+        public int getRecords() {
+            return records;
+        }
+
+        /**
+         * Gets the number of games played.
+         *
+         * @return the games played
+         */
+        public long getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * Gets the sum of every score saved.
+         *
+         * @return the total score
+         */
+        public long getTotalScore() {
+            return totalScore;
+        }
+
+        /**
+         * Gets the highest score saved.
+         *
+         * @return the best score
+         */
+        public int getBestScore() {
+            return bestScore;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package score;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Folds rotated score log segments into the log's summary file and deletes
+ * them, so reading the log costs one line per game and day instead of one
+ * line per session.
+ *
+ * A compaction writes the complete new summary before deleting anything, and
+ * the summary records which segments it covers; a crash at any point leaves a
+ * log that reads the same as before.
+ */
+public final class ScoreCompactor {
+
+    private final Path live;
+    private final int retainTop;
+    private final ExecutorService background;
+
+    /**
+     * Creates a compactor for one log.
+     *
+     * @param live      the live segment of the log
+     * @param retainTop the number of top scores per game kept individually
+     */
+    public ScoreCompactor(final Path live, final int retainTop) {
+        this.live = live;
+        this.retainTop = retainTop;
+        this.background = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "score-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a compaction on the background thread and returns immediately.
+     */
+    public void compactInBackground() {
+        background.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.err.println("Error compacting scores: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Folds every rotated segment into the summary, then deletes the folded
+     * segments.
+     *
+     * @return the number of segments folded
+     * @throws IOException if the log cannot be read or the summary written
+     */
+    public synchronized int compact() throws IOException {
+        final ScoreLog.Summary previous = ScoreLog.readSummary(live);
+        final NavigableMap<Long, Path> segments = ScoreLog.segments(live);
+        final NavigableMap<Long, Path> unfolded = segments.tailMap(previous.folded, false);
+
+        if (!unfolded.isEmpty()) {
+            final ScoreLog.Summary next = fold(previous, unfolded);
+            ScoreLog.writeSummary(live, next);
+        }
+
+        // Also removes segments left behind by a crash after an earlier summary was written
+        final long folded = unfolded.isEmpty() ? previous.folded : unfolded.lastKey();
+        for (final Path segment : segments.headMap(folded, true).values()) {
+            Files.deleteIfExists(segment);
+        }
+        return unfolded.size();
+    }
+
+    /**
+     * Adds segments to a summary.
+     *
+     * @param previous the current summary
+     * @param segments the segments to fold, oldest first
+     * @return the new summary
+     * @throws IOException if a segment cannot be read
+     */
+    private ScoreLog.Summary fold(final ScoreLog.Summary previous, final NavigableMap<Long, Path> segments)
+            throws IOException {
+        final Map<LocalDate, Map<ScoreRecord.Game, ScoreSummary>> days = new TreeMap<>();
+        final Map<ScoreRecord.Game, PriorityQueue<ScoreRecord>> top = new EnumMap<>(ScoreRecord.Game.class);
+        for (final ScoreRecord.Game game : ScoreRecord.Game.values()) {
+            top.put(game, new PriorityQueue<>(retainTop + 1, Leaderboard.RANKING));
+        }
+
+        for (final ScoreSummary day : previous.days) {
+            summaryFor(days, day.getGame(), day.getDay()).add(day);
+        }
+        for (final ScoreRecord record : previous.retained) {
+            offer(top.get(record.getGame()), record);
+        }
+        for (final Path segment : segments.values()) {
+            ScoreJournal.read(segment, payload -> {
+                final ScoreRecord record = ScoreRecord.parse(payload);
+                if (record != null) {
+                    summaryFor(days, record.getGame(), record.getTime().toLocalDate()).add(record);
+                    offer(top.get(record.getGame()), record);
+                }
+            });
+        }
+
+        final ScoreLog.Summary next = new ScoreLog.Summary();
+        next.folded = segments.lastKey();
+        for (final Map<ScoreRecord.Game, ScoreSummary> games : days.values()) {
+            next.days.addAll(games.values());
+        }
+        for (final PriorityQueue<ScoreRecord> heap : top.values()) {
+            final List<ScoreRecord> kept = new ArrayList<>(heap);
+            kept.sort(Leaderboard.RANKING.reversed());
+            next.retained.addAll(kept);
+        }
+        return next;
+    }
+
+    private static ScoreSummary summaryFor(final Map<LocalDate, Map<ScoreRecord.Game, ScoreSummary>> days,
+                                           final ScoreRecord.Game game, final LocalDate day) {
+        return days.computeIfAbsent(day, key -> new EnumMap<>(ScoreRecord.Game.class))
+                .computeIfAbsent(game, key -> new ScoreSummary(game, day));
+    }
+
+    private void offer(final PriorityQueue<ScoreRecord> heap, final ScoreRecord record) {
+        if (heap.size() < retainTop) {
+            heap.add(record);
+        } else if (retainTop > 0 && Leaderboard.RANKING.compare(record, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(record);
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package score;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only score log with a single writer thread that group-commits
+ * records from any number of game sessions.
+ *
+ * Each record is one line: {@code <length>:<crc32>:<payload>}, where length
+ * is the UTF-8 byte length of the payload and crc32 is its checksum in eight
+ * hex digits. Lines without that prefix are legacy records and are read as is.
+ *
+ * The writer rotates the live file into a dated segment when it passes a
+ * size limit or a new day starts, and hands rotated segments to a
+ * {@link ScoreCompactor}. A day starts a new segment only once this journal
+ * has written to the live file on an earlier day; whatever the file held when
+ * it was opened, such as a legacy score log, rotates by size alone. Use {@link ScoreLog#read} to read the whole log.
+ */
+public final class ScoreJournal implements AutoCloseable {
+
+    /** The default score log. */
+    public static final Path DEFAULT_FILE = Paths.get("score.txt");
+
+    /** By default, fsync after this many records... */
+    public static final int DEFAULT_SYNC_EVERY_RECORDS = 32;
+
+    /** ...or after this many milliseconds with unsynced records, whichever comes first. */
+    public static final long DEFAULT_SYNC_EVERY_MILLIS = 1000;
+
+    /** By default, rotate the live file once it reaches this many bytes. */
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 1L << 20;
+
+    private static final int MAX_BATCH = 256;
+
+    /** Queued by close() to stop the writer once everything before it is written. */
+    private static final Object STOP = new Object();
+
+    private static ScoreJournal shared;
+
+    private final Path file;
+    private final int syncEveryRecords;
+    private final long syncEveryMillis;
+    private final long maxSegmentBytes;
+    private final boolean rotateDaily;
+    private final ScoreCompactor compactor;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final List<Consumer<ScoreRecord>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread writer;
+    private boolean closed; // Guarded by this, together with queueing onto the writer
+
+    // Owned by the writer thread once it starts
+    private FileChannel channel;
+    private LocalDate segmentDay; // The day this journal first wrote to the live file, or null before then
+    private long lastSegmentId;
+
+    /**
+     * Opens a journal that never rotates, first repairing any torn final record.
+     *
+     * @param file             the log file
+     * @param syncEveryRecords fsync after this many records; 1 syncs every batch
+     * @param syncEveryMillis  fsync when unsynced records are this old; 0 disables the timer
+     * @throws IOException if the file cannot be opened or repaired
+     */
+    public ScoreJournal(final Path file, final int syncEveryRecords, final long syncEveryMillis) throws IOException {
+        this(file, syncEveryRecords, syncEveryMillis, 0, false, null);
+    }
+
+    /**
+     * Opens a journal, first repairing any torn final record and then
+     * compacting any segments rotated earlier.
+     *
+     * @param file             the log file
+     * @param syncEveryRecords fsync after this many records; 1 syncs every batch
+     * @param syncEveryMillis  fsync when unsynced records are this old; 0 disables the timer
+     * @param maxSegmentBytes  rotate once the live file reaches this size; 0 disables size rotation
+     * @param rotateDaily      whether to rotate when the first record of a new day arrives
+     * @param compactor        folds rotated segments into the summary, or null to keep them
+     * @throws IOException if the file cannot be opened or repaired
+     */
+    public ScoreJournal(final Path file, final int syncEveryRecords, final long syncEveryMillis,
+                        final long maxSegmentBytes, final boolean rotateDaily, final ScoreCompactor compactor)
+            throws IOException {
+        this.file = file;
+        this.syncEveryRecords = Math.max(1, syncEveryRecords);
+        this.syncEveryMillis = syncEveryMillis;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.rotateDaily = rotateDaily;
+        this.compactor = compactor;
+
+        recover(file, payload -> { });
+        final NavigableMap<Long, Path> segments = ScoreLog.segments(file);
+        this.lastSegmentId = segments.isEmpty() ? 0 : segments.lastKey();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (compactor != null && !segments.isEmpty()) {
+            compactor.compactInBackground();
+        }
+        this.writer = new Thread(this::writeLoop, "score-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Gets the process-wide journal on the default score log, opening it on
+     * first use. It is flushed and closed when the JVM shuts down.
+     *
+     * @return the shared journal
+     * @throws IOException if the journal cannot be opened
+     */
+    public static synchronized ScoreJournal shared() throws IOException {
+        if (shared == null) {
+            final ScoreJournal journal = new ScoreJournal(DEFAULT_FILE, DEFAULT_SYNC_EVERY_RECORDS,
+                    DEFAULT_SYNC_EVERY_MILLIS, DEFAULT_MAX_SEGMENT_BYTES, true,
+                    new ScoreCompactor(DEFAULT_FILE, Leaderboard.DEFAULT_SIZE));
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "score-journal-shutdown"));
+            shared = journal;
+        }
+        return shared;
+    }
+
+    /**
+     * Queues a record for writing, tells every listener about it and
+     * returns without waiting for the disk.
+     *
+     * @param record the score to save
+     * @throws IllegalStateException if the journal is closed
+     */
+    public void append(final ScoreRecord record) {
+        synchronized (listeners) {
+            append(record.format());
+            for (final Consumer<ScoreRecord> listener : listeners) {
+                listener.accept(record);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for new records after replaying the log to it, so
+     * it sees every record exactly once. Appends wait while the replay runs.
+     *
+     * @param listener receives each record appended from now on
+     * @param replay   reads the log, given its live file, once everything queued is on disk
+     * @throws IOException          if the replay fails
+     * @throws InterruptedException if interrupted while flushing
+     */
+    public void subscribe(final Consumer<ScoreRecord> listener, final Replay replay)
+            throws IOException, InterruptedException {
+        synchronized (listeners) {
+            flush();
+            replay.read(file);
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Reads the log when a listener subscribes.
+     */
+    @FunctionalInterface
+    public interface Replay {
+        /**
+         * Reads the log.
+         *
+         * @param file the log file
+         * @throws IOException if the log cannot be read
+         */
+        void read(Path file) throws IOException;
+    }
+
+    /**
+     * Queues a raw payload line for writing and returns immediately.
+     *
+     * @param payload the record text, without a line ending
+     * @throws IllegalStateException if the journal is closed
+     */
+    void append(final String payload) {
+        if (payload.indexOf('\n') >= 0 || payload.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Score records must be a single line.");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Score journal is closed.");
+            }
+            queue.add(payload);
+        }
+    }
+
+    /**
+     * Blocks until every record queued so far is written and synced.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            queue.add(latch);
+        }
+        latch.await();
+    }
+
+    /**
+     * Writes any queued records, syncs and closes the file.
+     */
+    @Override
+    public void close() {
+        // Queued under the same lock as appends and flushes, so nothing can follow STOP
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        // The writer is never interrupted, since that would close the channel mid-write
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing score journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the live log file.
+     *
+     * @return the path of the live segment
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Drains the queue in batches, writing each batch with one system call
+     * and syncing according to the durability policy.
+     */
+    private void writeLoop() {
+        final List<Object> batch = new ArrayList<>(MAX_BATCH);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        int unsynced = 0;
+        long oldestUnsynced = 0;
+
+        boolean running = true;
+
+        while (running) {
+            try {
+                final Object first = unsynced > 0 && syncEveryMillis > 0
+                        ? queue.poll(Math.max(1, syncEveryMillis - (System.currentTimeMillis() - oldestUnsynced)),
+                                TimeUnit.MILLISECONDS)
+                        : queue.take();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                }
+            } catch (InterruptedException e) {
+                continue;
+            }
+
+            try {
+                if (rotationDue(batch)) {
+                    rotate();
+                    unsynced = 0;
+                }
+            } catch (IOException e) {
+                System.err.println("Error rotating scores: " + e.getMessage());
+            }
+
+            final List<CountDownLatch> waiters = new ArrayList<>();
+            bytes.reset();
+            for (final Object item : batch) {
+                if (item == STOP) {
+                    running = false;
+                } else if (item instanceof CountDownLatch) {
+                    waiters.add((CountDownLatch) item);
+                } else {
+                    encode((String) item, bytes);
+                    if (segmentDay == null) {
+                        segmentDay = LocalDate.now();
+                    }
+                    if (unsynced++ == 0) {
+                        oldestUnsynced = System.currentTimeMillis();
+                    }
+                }
+            }
+            batch.clear();
+
+            try {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                final boolean due = unsynced >= syncEveryRecords
+                        || (unsynced > 0 && syncEveryMillis > 0
+                            && System.currentTimeMillis() - oldestUnsynced >= syncEveryMillis);
+                if (due || (!waiters.isEmpty() && unsynced > 0)) {
+                    channel.force(false);
+                    unsynced = 0;
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving score: " + e.getMessage());
+            }
+
+            for (final CountDownLatch waiter : waiters) {
+                waiter.countDown();
+            }
+        }
+
+        if (unsynced > 0) {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("Error syncing scores: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tells whether the live file should be rotated before a batch is written.
+     *
+     * @param batch the batch about to be written
+     * @return true if the batch holds records and the live file is full, or this journal first
+     *         wrote to it on an earlier day
+     * @throws IOException if the file size cannot be read
+     */
+    private boolean rotationDue(final List<Object> batch) throws IOException {
+        boolean hasRecords = false;
+        for (final Object item : batch) {
+            hasRecords |= item instanceof String;
+        }
+        if (!hasRecords || channel.size() == 0) {
+            return false;
+        }
+        return (maxSegmentBytes > 0 && channel.size() >= maxSegmentBytes)
+                || (rotateDaily && segmentDay != null && !segmentDay.equals(LocalDate.now()));
+    }
+
+    /**
+     * Syncs and closes the live file, moves it to a new segment, opens a
+     * fresh live file and queues a compaction.
+     *
+     * @throws IOException if the file cannot be moved or reopened
+     */
+    private void rotate() throws IOException {
+        channel.force(false);
+        channel.close();
+
+        // Ids are rotation times, kept increasing even if the clock steps back
+        final long id = Math.max(System.currentTimeMillis(), lastSegmentId + 1);
+        try {
+            final LocalDate day = segmentDay != null ? segmentDay : LocalDate.now();
+            Files.move(file, ScoreLog.segmentFile(file, day, id), StandardCopyOption.ATOMIC_MOVE);
+            lastSegmentId = id;
+            segmentDay = null;
+        } finally {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        if (compactor != null) {
+            compactor.compactInBackground();
+        }
+    }
+
+    /**
+     * Appends one framed record to a buffer.
+     *
+     * @param payload the record text
+     * @param out     the buffer
+     */
+    static void encode(final String payload, final ByteArrayOutputStream out) {
+        final byte[] data = payload.getBytes(StandardCharsets.UTF_8);
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+        final String prefix = data.length + ":" + String.format("%08x", crc.getValue()) + ":";
+        out.writeBytes(prefix.getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(data);
+        out.write('\n');
+    }
+
+    /**
+     * Streams every valid record in a log and truncates a torn final record,
+     * which is one cut short by a crash before its line ending or checksum
+     * was fully written. Corrupt records elsewhere are reported and skipped.
+     *
+     * @param file     the log file; a missing file has no records
+     * @param payloads receives each record's payload in file order
+     * @return the number of records read
+     * @throws IOException if the file cannot be read or truncated
+     */
+    public static int recover(final Path file, final Consumer<String> payloads) throws IOException {
+        return scan(file, payloads, true);
+    }
+
+    /**
+     * Streams every valid record in a log without modifying it. A torn final
+     * record is ignored.
+     *
+     * @param file     the log file; a missing file has no records
+     * @param payloads receives each record's payload in file order
+     * @return the number of records read
+     * @throws IOException if the file cannot be read
+     */
+    public static int read(final Path file, final Consumer<String> payloads) throws IOException {
+        return scan(file, payloads, false);
+    }
+
+    /**
+     * Streams the valid records of a log.
+     *
+     * @param file     the log file
+     * @param payloads receives each record's payload in file order
+     * @param repair   whether to truncate a torn final record
+     * @return the number of records read
+     * @throws IOException if the file cannot be read or truncated
+     */
+    private static int scan(final Path file, final Consumer<String> payloads, final boolean repair)
+            throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        int records = 0;
+        long offset = 0;
+        long validEnd = 0;
+        boolean tornTail = false;
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            int b;
+            while (true) {
+                b = in.read();
+                if (b == -1) {
+                    // Bytes after the last line ending are a torn write
+                    tornTail = line.size() > 0;
+                    break;
+                }
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                final String payload = decode(line.toByteArray());
+                line.reset();
+                if (payload != null) {
+                    if (!payload.isEmpty()) {
+                        payloads.accept(payload);
+                        records++;
+                    }
+                    validEnd = offset;
+                } else if (in.available() == 0) {
+                    tornTail = true;
+                    break;
+                } else {
+                    System.err.println("Skipping corrupt score record ending at byte " + offset);
+                    validEnd = offset;
+                }
+            }
+        }
+
+        if (tornTail && repair) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Validates one line and extracts its payload.
+     *
+     * @param line the line bytes, without the line ending
+     * @return the payload, the whole line for a legacy record, or null if the record is corrupt
+     */
+    static String decode(final byte[] line) {
+        int end = line.length;
+        if (end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+
+        // Framed records start with digits, a colon, eight hex digits and a colon
+        int colon = 0;
+        while (colon < end && line[colon] >= '0' && line[colon] <= '9') {
+            colon++;
+        }
+        final boolean framed = colon > 0 && colon <= 9 && colon + 10 <= end && line[colon] == ':' && line[colon + 9] == ':'
+                && isHex(line, colon + 1, colon + 9);
+        if (!framed) {
+            return end == 0 ? "" : new String(line, 0, end, StandardCharsets.UTF_8);
+        }
+
+        final int length = Integer.parseInt(new String(line, 0, colon, StandardCharsets.US_ASCII));
+        final int start = colon + 10;
+        if (end - start != length) {
+            return null;
+        }
+        final long expected = Long.parseLong(new String(line, colon + 1, 8, StandardCharsets.US_ASCII), 16);
+        final CRC32 crc = new CRC32();
+        crc.update(line, start, length);
+        if (crc.getValue() != expected) {
+            return null;
+        }
+        return new String(line, start, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tells whether a byte range holds only lower-case hex digits.
+     *
+     * @param bytes the bytes
+     * @param from  the first index, inclusive
+     * @param to    the last index, exclusive
+     * @return true if every byte is 0-9 or a-f
+     */
+    private static boolean isHex(final byte[] bytes, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final byte b = bytes[i];
+            if (!(b >= '0' && b <= '9') && !(b >= 'a' && b <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,319 @@
+package score;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The on-disk layout of a rotated score log, and a consistent reader over it.
+ *
+ * For a live log {@code score.txt} the layout is:
+ * <ul>
+ *   <li>{@code score.txt}, the live segment the journal appends to;</li>
+ *   <li>{@code score-<yyyyMMdd>-<id>.txt}, rotated segments, where id is the
+ *       rotation time in milliseconds and increases with every rotation;</li>
+ *   <li>{@code score-summary.txt}, the compacted state: the id of the last
+ *       segment folded into it, the per-day totals and the retained top scores.</li>
+ * </ul>
+ * The summary is only ever replaced by an atomic rename, and a segment is only
+ * deleted after a summary covering it is in place.
+ */
+public final class ScoreLog {
+
+    /** Marks the summary line recording the last folded segment. */
+    static final String FOLDED_PREFIX = "folded | ";
+
+    /** Marks a summary line holding one retained top score. */
+    static final String RETAINED_PREFIX = "top | ";
+
+    private static final DateTimeFormatter SEGMENT_DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** Gives up on a consistent read after this many concurrent rotations. */
+    private static final int MAX_READ_ATTEMPTS = 100;
+
+    private ScoreLog() {
+    }
+
+    /**
+     * Receives the contents of a score log.
+     */
+    public interface Visitor {
+        /**
+         * Receives the totals of scores compacted out of the log.
+         *
+         * @param summary one game's totals for one day
+         */
+        void summary(ScoreSummary summary);
+
+        /**
+         * Receives a top score kept by compaction. It is already counted in
+         * a summary.
+         *
+         * @param record the score
+         */
+        void retained(ScoreRecord record);
+
+        /**
+         * Receives a score that has not been compacted yet.
+         *
+         * @param record the score
+         */
+        void record(ScoreRecord record);
+    }
+
+    /**
+     * Reads a score log as of a single point in time: the summary, the
+     * segments it has not folded, and the live segment. Rotation and
+     * compaction may run concurrently; a read that overlaps one is retried, so
+     * the visitor never sees a record twice or a half-compacted log.
+     *
+     * @param live    the live segment
+     * @param visitor receives the contents, summaries first
+     * @throws IOException if the log cannot be read
+     */
+    public static void read(final Path live, final Visitor visitor) throws IOException {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            final Summary summary = readSummary(live);
+            final NavigableMap<Long, Path> segments = unfolded(live, summary.folded);
+            final List<ScoreRecord> records = new ArrayList<>();
+
+            try {
+                for (final Path segment : segments.values()) {
+                    readRecords(segment, records, true);
+                }
+                readRecords(live, records, false);
+            } catch (NoSuchFileException e) {
+                // Compacted away after the summary was read
+                continue;
+            }
+
+            // A rotation during the read moves records between files
+            if (!segments.equals(unfolded(live, summary.folded))) {
+                continue;
+            }
+
+            for (final ScoreSummary day : summary.days) {
+                visitor.summary(day);
+            }
+            for (final ScoreRecord record : summary.retained) {
+                visitor.retained(record);
+            }
+            for (final ScoreRecord record : records) {
+                visitor.record(record);
+            }
+            return;
+        }
+        throw new IOException("Score log kept changing while being read: " + live);
+    }
+
+    /**
+     * Gets the summary file of a log.
+     *
+     * @param live the live segment
+     * @return the summary path
+     */
+    static Path summaryFile(final Path live) {
+        return sibling(live, "-summary");
+    }
+
+    /**
+     * Gets the path a segment rotated out of a log is moved to.
+     *
+     * @param live the live segment
+     * @param day  the day the segment was started
+     * @param id   the rotation id, greater than every earlier one
+     * @return the segment path
+     */
+    static Path segmentFile(final Path live, final LocalDate day, final long id) {
+        return sibling(live, "-" + SEGMENT_DAY.format(day) + "-" + id);
+    }
+
+    /**
+     * Lists the rotated segments of a log.
+     *
+     * @param live the live segment
+     * @return the segments by id, oldest first
+     * @throws IOException if the directory cannot be listed
+     */
+    static NavigableMap<Long, Path> segments(final Path live) throws IOException {
+        final NavigableMap<Long, Path> segments = new TreeMap<>();
+        final Path directory = directoryOf(live);
+        final String stem = stem(live) + "-";
+        final String extension = extension(live);
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, stem + "*" + extension)) {
+            for (final Path entry : entries) {
+                final String name = entry.getFileName().toString();
+                final String middle = name.substring(stem.length(), name.length() - extension.length());
+                // <yyyyMMdd>-<id>
+                final int dash = middle.indexOf('-');
+                if (dash != 8 || !isDigits(middle, 0, dash) || !isDigits(middle, dash + 1, middle.length())
+                        || middle.length() - dash - 1 > 18) {
+                    continue;
+                }
+                segments.put(Long.parseLong(middle.substring(dash + 1)), entry);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Lists the rotated segments a summary has not folded yet.
+     *
+     * @param live   the live segment
+     * @param folded the id of the last folded segment
+     * @return the unfolded segments by id, oldest first
+     * @throws IOException if the directory cannot be listed
+     */
+    static NavigableMap<Long, Path> unfolded(final Path live, final long folded) throws IOException {
+        return segments(live).tailMap(folded, false);
+    }
+
+    /**
+     * Reads the summary file of a log.
+     *
+     * @param live the live segment
+     * @return the summary, empty if the log has never been compacted
+     * @throws IOException if the summary cannot be read
+     */
+    static Summary readSummary(final Path live) throws IOException {
+        final Summary summary = new Summary();
+        final Path file = summaryFile(live);
+        final List<String> lines = new ArrayList<>();
+        try {
+            ScoreJournal.read(file, lines::add);
+        } catch (NoSuchFileException e) {
+            return summary;
+        }
+
+        for (final String line : lines) {
+            if (line.startsWith(FOLDED_PREFIX)) {
+                summary.folded = Long.parseLong(line.substring(FOLDED_PREFIX.length()).trim());
+            } else if (line.startsWith(RETAINED_PREFIX)) {
+                final ScoreRecord record = ScoreRecord.parse(line.substring(RETAINED_PREFIX.length()));
+                if (record != null) {
+                    summary.retained.add(record);
+                }
+            } else {
+                final ScoreSummary day = ScoreSummary.parse(line);
+                if (day != null) {
+                    summary.days.add(day);
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Replaces the summary file of a log. The new summary is written to a
+     * temporary file, synced and renamed over the old one, so readers see
+     * either the old summary or the new one.
+     *
+     * @param live    the live segment
+     * @param summary the new summary
+     * @throws IOException if the summary cannot be written
+     */
+    static void writeSummary(final Path live, final Summary summary) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        ScoreJournal.encode(FOLDED_PREFIX + summary.folded, bytes);
+        for (final ScoreSummary day : summary.days) {
+            ScoreJournal.encode(day.format(), bytes);
+        }
+        for (final ScoreRecord record : summary.retained) {
+            ScoreJournal.encode(RETAINED_PREFIX + record.format(), bytes);
+        }
+
+        final Path target = summaryFile(live);
+        final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Parses every score in one segment.
+     *
+     * @param file    the segment
+     * @param records receives the scores in file order
+     * @param rotated whether the segment is a rotated one, which must exist
+     * @throws IOException if the segment cannot be read
+     */
+    private static void readRecords(final Path file, final List<ScoreRecord> records, final boolean rotated)
+            throws IOException {
+        if (rotated && !Files.exists(file)) {
+            throw new NoSuchFileException(file.toString());
+        }
+        ScoreJournal.read(file, payload -> {
+            final ScoreRecord record = ScoreRecord.parse(payload);
+            if (record != null) {
+                records.add(record);
+            }
+        });
+    }
+
+    private static Path sibling(final Path live, final String suffix) {
+        return directoryOf(live).resolve(stem(live) + suffix + extension(live));
+    }
+
+    private static Path directoryOf(final Path live) {
+        final Path parent = live.toAbsolutePath().getParent();
+        return parent != null ? parent : live.toAbsolutePath();
+    }
+
+    private static String stem(final Path live) {
+        final String name = live.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String extension(final Path live) {
+        final String name = live.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot) : "";
+    }
+
+    private static boolean isDigits(final String text, final int from, final int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (!ScoreRecord.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The compacted state of a log.
+     */
+    static final class Summary {
+        /** The id of the last segment folded in, or -1 if none. */
+        long folded = -1;
+
+        /** The totals per game and day. */
+        final List<ScoreSummary> days = new ArrayList<>();
+
+        /** The top scores per game that survive compaction. */
+        final List<ScoreRecord> retained = new ArrayList<>();
+    }
+}
@@ -0,0 +1,307 @@
+package score;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One saved game score, written to the score log as a human-readable line.
+ */
+public final class ScoreRecord {
+
+    /** The timestamp format used in the score log. */
+    public static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * The games that save scores.
+     */
+    public enum Game {
+        WORD,
+        NUMBER
+    }
+
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final Game game;
+    private final LocalDateTime time;
+    private final int gamesPlayed;
+    private final int correctFirstAttempt;
+    private final int correctSecondAttempt;
+    private final int incorrectAttempts;
+    private final int gamesWon;
+    private final int placements;
+    private final int totalScore;
+
+    private ScoreRecord(final Game game, final LocalDateTime time, final int gamesPlayed,
+                        final int correctFirstAttempt, final int correctSecondAttempt, final int incorrectAttempts,
+                        final int gamesWon, final int placements, final int totalScore) {
+        this.game = game;
+        this.time = time;
+        this.gamesPlayed = gamesPlayed;
+        this.correctFirstAttempt = correctFirstAttempt;
+        this.correctSecondAttempt = correctSecondAttempt;
+        this.incorrectAttempts = incorrectAttempts;
+        this.gamesWon = gamesWon;
+        this.placements = placements;
+        this.totalScore = totalScore;
+    }
+
+    /**
+     * Creates a word game score record.
+     *
+     * @param time                 when the score was saved
+     * @param gamesPlayed          the number of rounds played
+     * @param correctFirstAttempt  the answers correct on the first attempt
+     * @param correctSecondAttempt the answers correct on the second attempt
+     * @param incorrectAttempts    the answers missed on both attempts
+     * @return the record, scoring two points per first-attempt answer and one per second-attempt answer
+     */
+    public static ScoreRecord word(final LocalDateTime time, final int gamesPlayed, final int correctFirstAttempt,
+                                   final int correctSecondAttempt, final int incorrectAttempts) {
+        return new ScoreRecord(Game.WORD, time, gamesPlayed, correctFirstAttempt, correctSecondAttempt,
+                incorrectAttempts, 0, 0, correctFirstAttempt * 2 + correctSecondAttempt);
+    }
+
+    /**
+     * Creates a number game score record.
+     *
+     * @param time        when the score was saved
+     * @param gamesPlayed the number of games played
+     * @param gamesWon    the number of games won
+     * @param placements  the number of numbers placed successfully
+     * @return the record, scoring one point per placement
+     */
+    public static ScoreRecord number(final LocalDateTime time, final int gamesPlayed, final int gamesWon,
+                                     final int placements) {
+        return new ScoreRecord(Game.NUMBER, time, gamesPlayed, 0, 0, 0, gamesWon, placements, placements);
+    }
+
+    /**
+     * Gets the game the score is for.
+     *
+     * @return the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets when the score was saved.
+     *
+     * @return when the score was saved
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the number of rounds played.
+     *
+     * @return the number of rounds played
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Gets the answers correct on the first attempt.
+     *
+     * @return the answers correct on the first attempt
+     */
+    public int getCorrectFirstAttempt() {
+        return correctFirstAttempt;
+    }
+
+    /**
+     * Gets the answers correct on the second attempt.
+     *
+     * @return the answers correct on the second attempt
+     */
+    public int getCorrectSecondAttempt() {
+        return correctSecondAttempt;
+    }
+
+    /**
+     * Gets the answers missed on both attempts.
+     *
+     * @return the answers missed on both attempts
+     */
+    public int getIncorrectAttempts() {
+        return incorrectAttempts;
+    }
+
+    /**
+     * Gets the number of number games won.
+     *
+     * @return the games won
+     */
+    public int getGamesWon() {
+        return gamesWon;
+    }
+
+    /**
+     * Gets the number of successful number placements.
+     *
+     * @return the placements
+     */
+    public int getPlacements() {
+        return placements;
+    }
+
+    /**
+     * Gets the total score.
+     *
+     * @return the total score
+     */
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * Formats the record as a score log line, without the line ending.
+     *
+     * @return the line
+     */
+    public String format() {
+        final StringBuilder line = new StringBuilder(160).append(TIMESTAMP_FORMAT.format(time)).append(" | ");
+        if (game == Game.WORD) {
+            line.append(gamesPlayed).append(" word games played | ")
+                .append(correctFirstAttempt).append(" correct answers on the first attempt | ")
+                .append(correctSecondAttempt).append(" correct answers on the second attempt | ")
+                .append(incorrectAttempts).append(" incorrect answers on two attempts each | ");
+        } else {
+            line.append(gamesPlayed).append(" number games played | ")
+                .append(gamesWon).append(" games won | ")
+                .append(placements).append(" successful placements | ");
+        }
+        return line.append("Total Score: ").append(totalScore).toString();
+    }
+
+    /**
+     * Parses a score log line in one pass, without splitting it.
+     *
+     * @param line the line, as written by format()
+     * @return the record, or null if the line is not a score record
+     */
+    public static ScoreRecord parse(final CharSequence line) {
+        if (line.length() < TIMESTAMP_LENGTH) {
+            return null;
+        }
+
+        final LocalDateTime time;
+        try {
+            time = LocalDateTime.parse(line.subSequence(0, TIMESTAMP_LENGTH), TIMESTAMP_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+
+        Game game = null;
+        int played = 0;
+        int first = 0;
+        int second = 0;
+        int incorrect = 0;
+        int won = 0;
+        int placed = 0;
+        int total = -1;
+
+        // Each field is " | <number> <label>", except the final "Total Score: <number>"
+        int position = TIMESTAMP_LENGTH;
+        final int length = line.length();
+        while (position < length) {
+            position = skipSeparator(line, position);
+            if (position >= length) {
+                break;
+            }
+
+            if (startsWith(line, position, "Total Score: ")) {
+                position += "Total Score: ".length();
+                total = 0;
+                while (position < length && isDigit(line.charAt(position))) {
+                    total = total * 10 + line.charAt(position++) - '0';
+                }
+                continue;
+            }
+
+            int value = 0;
+            final int numberStart = position;
+            while (position < length && isDigit(line.charAt(position))) {
+                value = value * 10 + line.charAt(position++) - '0';
+            }
+            if (position == numberStart || position >= length || line.charAt(position) != ' ') {
+                return null;
+            }
+            position++;
+
+            if (startsWith(line, position, "word games played")) {
+                game = Game.WORD;
+                played = value;
+            } else if (startsWith(line, position, "number games played")) {
+                game = Game.NUMBER;
+                played = value;
+            } else if (startsWith(line, position, "correct answers on the first attempt")) {
+                first = value;
+            } else if (startsWith(line, position, "correct answers on the second attempt")) {
+                second = value;
+            } else if (startsWith(line, position, "incorrect answers")) {
+                incorrect = value;
+            } else if (startsWith(line, position, "games won")) {
+                won = value;
+            } else if (startsWith(line, position, "successful placements")) {
+                placed = value;
+            }
+
+            while (position < length && line.charAt(position) != '|') {
+                position++;
+            }
+        }
+
+        if (game == null || total < 0) {
+            return null;
+        }
+        return new ScoreRecord(game, time, played, first, second, incorrect, won, placed, total);
+    }
+
+    /**
+     * Skips the spaces and bar between two fields.
+     *
+     * @param line     the line
+     * @param position the current position
+     * @return the position of the next field
+     */
+    static int skipSeparator(final CharSequence line, int position) {
+        while (position < line.length() && (line.charAt(position) == ' ' || line.charAt(position) == '|')) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Tells whether the line contains a prefix at a position.
+     *
+     * @param line     the line
+     * @param position where to look
+     * @param prefix   the expected text
+     * @return true if the text matches
+     */
+    static boolean startsWith(final CharSequence line, final int position, final String prefix) {
+        if (position + prefix.length() > line.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line.charAt(position + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether a character is an ASCII digit.
+     *
+     * @param c the character
+     * @return true for 0-9
+     */
+    static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,254 @@
+package score;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The totals of every score one game saved on one day, produced when old
+ * log segments are compacted. The log has no player names, so a game and a
+ * day together identify a summary.
+ */
+public final class ScoreSummary {
+
+    /** The marker that starts every summary line. */
+    static final String PREFIX = "summary | ";
+
+    private static final int DATE_LENGTH = 10;
+
+    private final ScoreRecord.Game game;
+    private final LocalDate day;
+    private int records;
+    private long gamesPlayed;
+    private long correctFirstAttempt;
+    private long correctSecondAttempt;
+    private long incorrectAttempts;
+    private long gamesWon;
+    private long placements;
+    private long totalScore;
+    private int bestScore;
+
+    /**
+     * Creates an empty summary.
+     *
+     * @param game the game
+     * @param day  the day
+     */
+    public ScoreSummary(final ScoreRecord.Game game, final LocalDate day) {
+        this.game = game;
+        this.day = day;
+    }
+
+    /**
+     * Folds one score into the totals.
+     *
+     * @param record a score from this summary's game and day
+     */
+    void add(final ScoreRecord record) {
+        records++;
+        gamesPlayed += record.getGamesPlayed();
+        correctFirstAttempt += record.getCorrectFirstAttempt();
+        correctSecondAttempt += record.getCorrectSecondAttempt();
+        incorrectAttempts += record.getIncorrectAttempts();
+        gamesWon += record.getGamesWon();
+        placements += record.getPlacements();
+        totalScore += record.getTotalScore();
+        bestScore = Math.max(bestScore, record.getTotalScore());
+    }
+
+    /**
+     * Folds another summary for the same game and day into the totals.
+     *
+     * @param other the other summary
+     */
+    void add(final ScoreSummary other) {
+        records += other.records;
+        gamesPlayed += other.gamesPlayed;
+        correctFirstAttempt += other.correctFirstAttempt;
+        correctSecondAttempt += other.correctSecondAttempt;
+        incorrectAttempts += other.incorrectAttempts;
+        gamesWon += other.gamesWon;
+        placements += other.placements;
+        totalScore += other.totalScore;
+        bestScore = Math.max(bestScore, other.bestScore);
+    }
+
+    /**
+     * Gets the game.
+     *
+     * @return the game
+     */
+    public ScoreRecord.Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the day.
+     *
+     * @return the day
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the number of scores folded in.
+     *
+     * @return the record count
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return the games played
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Gets the answers correct on the first attempt.
+     *
+     * @return the first-attempt count
+     */
+    public long getCorrectFirstAttempt() {
+        return correctFirstAttempt;
+    }
+
+    /**
+     * Gets the answers correct on the second attempt.
+     *
+     * @return the second-attempt count
+     */
+    public long getCorrectSecondAttempt() {
+        return correctSecondAttempt;
+    }
+
+    /**
+     * Gets the answers missed on both attempts.
+     *
+     * @return the incorrect count
+     */
+    public long getIncorrectAttempts() {
+        return incorrectAttempts;
+    }
+
+    /**
+     * Gets the sum of every score.
+     *
+     * @return the total score
+     */
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * Gets the highest single score.
+     *
+     * @return the best score
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Formats the summary as a log line, without the line ending.
+     *
+     * @return the line
+     */
+    String format() {
+        return new StringBuilder(256).append(PREFIX)
+                .append(day).append(" | ")
+                .append(game).append(" | ")
+                .append(records).append(" records | ")
+                .append(gamesPlayed).append(" games played | ")
+                .append(correctFirstAttempt).append(" correct answers on the first attempt | ")
+                .append(correctSecondAttempt).append(" correct answers on the second attempt | ")
+                .append(incorrectAttempts).append(" incorrect answers | ")
+                .append(gamesWon).append(" games won | ")
+                .append(placements).append(" successful placements | ")
+                .append(bestScore).append(" best score | ")
+                .append("Total Score: ").append(totalScore)
+                .toString();
+    }
+
+    /**
+     * Parses a summary line in one pass.
+     *
+     * @param line the line, as written by format()
+     * @return the summary, or null if the line is not a summary
+     */
+    static ScoreSummary parse(final CharSequence line) {
+        if (!ScoreRecord.startsWith(line, 0, PREFIX) || line.length() < PREFIX.length() + DATE_LENGTH) {
+            return null;
+        }
+
+        int position = PREFIX.length();
+        final LocalDate day;
+        try {
+            day = LocalDate.parse(line.subSequence(position, position + DATE_LENGTH));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        position = ScoreRecord.skipSeparator(line, position + DATE_LENGTH);
+
+        ScoreRecord.Game game = null;
+        for (final ScoreRecord.Game candidate : ScoreRecord.Game.values()) {
+            if (ScoreRecord.startsWith(line, position, candidate.name() + " ")) {
+                game = candidate;
+                position += candidate.name().length();
+            }
+        }
+        if (game == null) {
+            return null;
+        }
+
+        final ScoreSummary summary = new ScoreSummary(game, day);
+        final int length = line.length();
+        while (position < length) {
+            position = ScoreRecord.skipSeparator(line, position);
+            final boolean total = ScoreRecord.startsWith(line, position, "Total Score: ");
+            if (total) {
+                position += "Total Score: ".length();
+            }
+
+            long value = 0;
+            final int numberStart = position;
+            while (position < length && ScoreRecord.isDigit(line.charAt(position))) {
+                value = value * 10 + line.charAt(position++) - '0';
+            }
+            if (position == numberStart) {
+                return null;
+            }
+            if (total) {
+                summary.totalScore = value;
+                continue;
+            }
+
+            position++;
+            if (ScoreRecord.startsWith(line, position, "records")) {
+                summary.records = (int) value;
+            } else if (ScoreRecord.startsWith(line, position, "games played")) {
+                summary.gamesPlayed = value;
+            } else if (ScoreRecord.startsWith(line, position, "correct answers on the first attempt")) {
+                summary.correctFirstAttempt = value;
+            } else if (ScoreRecord.startsWith(line, position, "correct answers on the second attempt")) {
+                summary.correctSecondAttempt = value;
+            } else if (ScoreRecord.startsWith(line, position, "incorrect answers")) {
+                summary.incorrectAttempts = value;
+            } else if (ScoreRecord.startsWith(line, position, "games won")) {
+                summary.gamesWon = value;
+            } else if (ScoreRecord.startsWith(line, position, "successful placements")) {
+                summary.placements = value;
+            } else if (ScoreRecord.startsWith(line, position, "best score")) {
+                summary.bestScore = (int) value;
+            }
+            while (position < length && line.charAt(position) != '|') {
+                position++;
+            }
+        }
+        return summary;
+    }
+}
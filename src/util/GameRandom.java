@@ -0,0 +1,106 @@
+package util;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Seedable random number source shared by the games.
+ *
+ * Each instance is confined to one thread or session; concurrent sessions
+ * get their own instance from {@link #newSession()} or {@link #split()}.
+ * Setting the system property {@code game.seed} makes every session
+ * sequence in the process deterministic and replayable.
+ */
+public final class GameRandom implements RandomGenerator {
+
+    /** The system property that fixes the root seed. */
+    public static final String SEED_PROPERTY = "game.seed";
+
+    private static SplittableRandom root = createRoot();
+
+    private final SplittableRandom random;
+
+    private GameRandom(final SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Creates a generator with a fixed seed.
+     *
+     * @param seed the seed
+     * @return a generator that always produces the same sequence for this seed
+     */
+    public static GameRandom seeded(final long seed) {
+        return new GameRandom(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates an independent generator for a new game session.
+     *
+     * @return a generator split from the process-wide root
+     */
+    public static synchronized GameRandom newSession() {
+        return new GameRandom(root.split());
+    }
+
+    /**
+     * Resets the process-wide root so later sessions replay from the seed.
+     *
+     * @param seed the new root seed
+     */
+    public static synchronized void reseed(final long seed) {
+        root = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates an independent generator derived from this one, for handing
+     * to another thread.
+     *
+     * @return the new generator
+     */
+    public GameRandom split() {
+        return new GameRandom(random.split());
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    @Override
+    public int nextInt(final int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(final int origin, final int bound) {
+        return random.nextInt(origin, bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Creates the root generator, seeded from {@code game.seed} when set.
+     *
+     * @return the root generator
+     */
+    private static SplittableRandom createRoot() {
+        final String seed = System.getProperty(SEED_PROPERTY);
+        if (seed != null) {
+            try {
+                return new SplittableRandom(Long.parseLong(seed.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + SEED_PROPERTY + ": " + seed);
+            }
+        }
+        return new SplittableRandom();
+    }
+}
@@ -0,0 +1,165 @@
+package util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free gameplay counters that both games report into.
+ *
+ * Each counter is a {@link LongAdder}, so concurrent sessions update striped
+ * cells instead of contending on one value, and any thread may read at any
+ * time without blocking writers. A session registry created with
+ * {@link #newSession()} also adds every update to the registry it came from,
+ * so one game's own totals and the process-wide totals stay in step.
+ */
+public final class GameStats {
+
+    /**
+     * The counters kept by every registry.
+     */
+    public enum Counter {
+        WORD_GAMES_PLAYED,
+        WORD_CORRECT_FIRST_ATTEMPT,
+        WORD_CORRECT_SECOND_ATTEMPT,
+        WORD_INCORRECT_ATTEMPTS,
+        NUMBER_GAMES_PLAYED,
+        NUMBER_GAMES_WON,
+        NUMBER_PLACEMENTS
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private static final GameStats SHARED = new GameStats(null);
+
+    private final LongAdder[] adders = new LongAdder[COUNTERS.length];
+    private final GameStats parent;
+
+    private GameStats(final GameStats parent) {
+        this.parent = parent;
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Gets the process-wide registry that every session reports into.
+     *
+     * @return the shared registry
+     */
+    public static GameStats shared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates a registry for one game session that also reports into this one.
+     *
+     * @return a new, zeroed session registry
+     */
+    public GameStats newSession() {
+        return new GameStats(this);
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param counter the counter
+     */
+    public void increment(final Counter counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Adds to a counter here and in every registry above this one.
+     *
+     * @param counter the counter
+     * @param amount  the amount to add
+     */
+    public void add(final Counter counter, final long amount) {
+        for (GameStats stats = this; stats != null; stats = stats.parent) {
+            stats.adders[counter.ordinal()].add(amount);
+        }
+    }
+
+    /**
+     * Reads one counter without locking.
+     *
+     * @param counter the counter
+     * @return its current value
+     */
+    public long get(final Counter counter) {
+        return adders[counter.ordinal()].sum();
+    }
+
+    /**
+     * Reads every counter without locking. Each value is exact at some moment
+     * during the call, but updates that race with the call may be reflected
+     * in some counters and not yet in others.
+     *
+     * @return the current values
+     */
+    public Snapshot snapshot() {
+        final long[] values = new long[adders.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return new Snapshot(values, System.nanoTime());
+    }
+
+    /**
+     * An immutable set of counter values.
+     */
+    public static final class Snapshot {
+        private final long[] values;
+        private final long nanoTime;
+
+        private Snapshot(final long[] values, final long nanoTime) {
+            this.values = values;
+            this.nanoTime = nanoTime;
+        }
+
+        /**
+         * Gets one counter.
+         *
+         * @param counter the counter
+         * @return its value when the snapshot was taken
+         */
+        public long get(final Counter counter) {
+            return values[counter.ordinal()];
+        }
+
+        /**
+         * Gets when the snapshot was taken.
+         *
+         * @return the {@link System#nanoTime()} at the time
+         */
+        public long getNanoTime() {
+            return nanoTime;
+        }
+
+        /**
+         * Computes the change in every counter since an earlier snapshot,
+         * which a monitor can divide by the elapsed time to get rates.
+         *
+         * @param earlier an earlier snapshot of the same registry
+         * @return the differences, timed at this snapshot
+         */
+        public Snapshot since(final Snapshot earlier) {
+            final long[] deltas = new long[values.length];
+            for (int i = 0; i < deltas.length; i++) {
+                deltas[i] = values[i] - earlier.values[i];
+            }
+            return new Snapshot(deltas, nanoTime);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder text = new StringBuilder(160);
+            for (final Counter counter : COUNTERS) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+                text.append(counter.name().toLowerCase()).append('=').append(values[counter.ordinal()]);
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands the latest state from one writer thread to one reader thread without
+ * locks, copying, or allocation.
+ *
+ * There are three buffers. The writer owns one and fills it, the reader owns
+ * another and reads it, and the third is the one most recently published,
+ * waiting for the reader. Publishing swaps the writer's buffer with the
+ * waiting one and acquiring swaps the reader's buffer with it if it is newer,
+ * each with one atomic exchange. Neither side ever waits for the other and
+ * neither ever sees a buffer the other is using, so a buffer the reader holds
+ * does not change until the reader acquires again. A writer that publishes
+ * faster than the reader acquires simply overwrites the waiting state.
+ *
+ * {@link #getWriteBuffer()} and {@link #publish()} must only be called by the
+ * writer thread, and {@link #acquire()} only by the reader thread.
+ *
+ * @param <T> the state type
+ */
+public final class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100; // The waiting buffer has not been acquired yet
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger waiting = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+
+    /**
+     * Creates a buffer whose three states come from a factory.
+     *
+     * @param factory creates each state
+     */
+    public TripleBuffer(final Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * Gets the state the writer fills next.
+     *
+     * @return the writer's buffer, which may hold any earlier state
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Makes the writer's buffer the latest state and gives the writer another.
+     */
+    public void publish() {
+        writeIndex = waiting.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Gets the latest published state, which stays unchanged until the next call.
+     *
+     * @return the newest state published, or the same state as last time if none is newer
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((waiting.get() & FRESH) != 0) {
+            readIndex = waiting.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+}
@@ -0,0 +1,224 @@
+package world;
+
+import javafx.animation.AnimationTimer;
+import metrics.FrameMetrics;
+
+/**
+ * Drives the game with a fixed simulation step, independent of the display's
+ * frame rate.
+ *
+ * Each frame adds the time since the previous frame to an accumulator and
+ * runs as many whole simulation steps as fit in it, then renders once with
+ * how far the simulation has got into the next step, so the view can be
+ * interpolated between the last two steps. When the display drops frames,
+ * the simulation catches up with more steps per frame; when a frame takes so
+ * long that catching up would take more than a set number of steps, the rest
+ * of the time is dropped and the game slows down instead of falling further
+ * behind.
+ *
+ * {@link #start()} drives the loop from the JavaFX pulse. {@link #advance(long)}
+ * drives it from any other clock, such as a headless test stepping a fake
+ * time, and {@link SimulationThread} drives it from a thread of its own. A
+ * loop is not thread-safe; the simulation and the view run on the thread
+ * that drives it.
+ */
+public final class GameLoop {
+
+    /** The default simulation rate, in steps per second. */
+    public static final double DEFAULT_STEPS_PER_SECOND = 120;
+
+    /** The default limit on steps run in one frame. */
+    public static final int DEFAULT_MAX_STEPS_PER_FRAME = 8;
+
+    /**
+     * Advances the game state by one fixed step.
+     */
+    @FunctionalInterface
+    public interface Simulation {
+        /**
+         * Runs one step.
+         *
+         * @param deltaTime the step (in seconds), the same every time
+         */
+        void step(double deltaTime);
+    }
+
+    /**
+     * Shows the game state once per frame.
+     */
+    @FunctionalInterface
+    public interface View {
+        /**
+         * Renders a frame.
+         *
+         * @param alpha how far the simulation is into the next step, from 0 inclusive to 1 exclusive;
+         *              drawing each thing at alpha of the way from its previous to its current
+         *              position hides the difference between the step and frame rates
+         */
+        void render(double alpha);
+    }
+
+    private final double stepSeconds;
+    private final long stepNanos;
+    private final int maxStepsPerFrame;
+    private final Simulation simulation;
+    private final View view;
+    private FrameMetrics metrics = FrameMetrics.disabled();
+    private AnimationTimer timer;
+
+    private long lastTime;
+    private boolean started;
+    private long accumulator;
+    private long steps;
+    private long droppedNanos;
+    private int lastFrameSteps;
+
+    /**
+     * Creates a loop at the default rate and step limit.
+     *
+     * @param simulation advances the game by one step
+     * @param view       renders a frame
+     */
+    public GameLoop(final Simulation simulation, final View view) {
+        this(DEFAULT_STEPS_PER_SECOND, DEFAULT_MAX_STEPS_PER_FRAME, simulation, view);
+    }
+
+    /**
+     * Creates a loop.
+     *
+     * @param stepsPerSecond   the simulation rate
+     * @param maxStepsPerFrame the most steps to run in one frame before dropping time
+     * @param simulation       advances the game by one step
+     * @param view             renders a frame
+     */
+    public GameLoop(final double stepsPerSecond, final int maxStepsPerFrame, final Simulation simulation,
+                    final View view) {
+        if (stepsPerSecond <= 0 || maxStepsPerFrame < 1) {
+            throw new IllegalArgumentException("stepsPerSecond and maxStepsPerFrame must be positive");
+        }
+        this.stepNanos = Math.round(1e9 / stepsPerSecond);
+        this.stepSeconds = stepNanos / 1e9;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        this.simulation = simulation;
+        this.view = view;
+    }
+
+    /**
+     * Reports each frame to the given metrics, around the steps and the render,
+     * with the number of steps run as the SIMULATION_STEPS gauge.
+     *
+     * @param metrics the metrics of this loop
+     */
+    public void setMetrics(final FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Runs one frame: the steps that are due by a given time, then a render.
+     * The first call only starts the clock and renders.
+     *
+     * @param now the frame time in {@link System#nanoTime()} units
+     * @return the number of steps run
+     */
+    public int advance(final long now) {
+        metrics.beginFrame(now);
+        if (started) {
+            accumulator += now - lastTime;
+        }
+        started = true;
+        lastTime = now;
+
+        int frameSteps = 0;
+        while (accumulator >= stepNanos && frameSteps < maxStepsPerFrame) {
+            simulation.step(stepSeconds);
+            accumulator -= stepNanos;
+            frameSteps++;
+        }
+        if (accumulator >= stepNanos) {
+            // Too far behind to catch up; keep the partial step and drop the rest
+            final long kept = accumulator % stepNanos;
+            droppedNanos += accumulator - kept;
+            accumulator = kept;
+        }
+        steps += frameSteps;
+        lastFrameSteps = frameSteps;
+
+        view.render((double) accumulator / stepNanos);
+        metrics.setGauge(FrameMetrics.Gauge.SIMULATION_STEPS, frameSteps);
+        metrics.endFrame();
+        return frameSteps;
+    }
+
+    /**
+     * Starts driving the loop from the JavaFX pulse. Must be called on the
+     * JavaFX Application Thread.
+     */
+    public void start() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(final long now) {
+                    advance(now);
+                }
+            };
+        }
+        timer.start();
+    }
+
+    /**
+     * Stops driving the loop from the JavaFX pulse. The next frame after a
+     * restart only restarts the clock, so the pause is not simulated.
+     */
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        started = false;
+        accumulator = 0;
+    }
+
+    /**
+     * Gets the fixed step.
+     *
+     * @return the step (in seconds)
+     */
+    public double getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * Gets how long until the next step is due, for a driver that waits between frames.
+     *
+     * @return the time (in nanoseconds)
+     */
+    public long getNanosUntilNextStep() {
+        return stepNanos - accumulator;
+    }
+
+    /**
+     * Gets the number of steps run so far.
+     *
+     * @return the step count
+     */
+    public long getStepCount() {
+        return steps;
+    }
+
+    /**
+     * Gets the number of steps run in the last frame.
+     *
+     * @return the step count of the last frame
+     */
+    public int getLastFrameSteps() {
+        return lastFrameSteps;
+    }
+
+    /**
+     * Gets the time dropped so far because frames fell too far behind.
+     *
+     * @return the dropped time (in nanoseconds)
+     */
+    public long getDroppedNanos() {
+        return droppedNanos;
+    }
+}
@@ -0,0 +1,66 @@
+package world;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link GameLoop} on a dedicated thread instead of the JavaFX
+ * pulse, so the simulation never competes with input handling and rendering
+ * on the JavaFX Application Thread.
+ *
+ * The thread advances the loop, then sleeps until the next step is due. The
+ * loop's simulation and view both run on this thread, so they must not touch
+ * the scene graph; the view's job is to publish the state for the JavaFX
+ * thread to show, for example through a {@link util.TripleBuffer}.
+ */
+public final class SimulationThread {
+
+    private final GameLoop loop;
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Creates a stopped simulation thread.
+     *
+     * @param loop the loop to drive, which nothing else may drive
+     */
+    public SimulationThread(final GameLoop loop) {
+        this.loop = loop;
+        this.thread = new Thread(this::run, "simulation");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the thread.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the thread after its current frame and waits for it to finish.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    /**
+     * Gets the thread, for example to measure its CPU time.
+     *
+     * @return the thread
+     */
+    public Thread getThread() {
+        return thread;
+    }
+
+    private void run() {
+        while (running) {
+            loop.advance(System.nanoTime());
+            LockSupport.parkNanos(loop.getNanosUntilNextStep());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package world;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A uniform grid over the world that buckets points by cell, for broad-phase
+ * collision queries that look only at the cells an area overlaps.
+ *
+ * Entries are small non-negative integer ids chosen by the caller, such as
+ * indices into a bullet array. Each cell is an intrusive doubly linked list
+ * kept in primitive arrays, so inserting, moving and removing an entry is
+ * O(1) and allocates nothing once the arrays have grown. Points outside the
+ * world are kept in the nearest edge cell. The grid is not thread-safe.
+ */
+public final class SpatialHashGrid {
+
+    private static final int NONE = -1;
+
+    private final double cellSize;
+    private final double inverseCellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] head;
+    private int[] next;
+    private int[] previous;
+    private int[] cellOf;
+    private int entries;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param width    the width of the world
+     * @param height   the height of the world
+     * @param cellSize the side of each square cell; about the size of the largest queried area works well
+     */
+    public SpatialHashGrid(final double width, final double height, final double cellSize) {
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1 / cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.head = new int[columns * rows];
+        Arrays.fill(head, NONE);
+        this.next = new int[0];
+        this.previous = new int[0];
+        this.cellOf = new int[0];
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param id the entry id, not already in the grid
+     * @param x  its x-coordinate
+     * @param y  its y-coordinate
+     */
+    public void insert(final int id, final double x, final double y) {
+        ensureCapacity(id + 1);
+        link(id, cellIndex(x, y));
+        entries++;
+    }
+
+    /**
+     * Updates an entry's position, relinking it only if it changed cell.
+     *
+     * @param id the entry id
+     * @param x  its new x-coordinate
+     * @param y  its new y-coordinate
+     */
+    public void move(final int id, final double x, final double y) {
+        final int cell = cellIndex(x, y);
+        if (cell != cellOf[id]) {
+            unlink(id);
+            link(id, cell);
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param id the entry id
+     */
+    public void remove(final int id) {
+        unlink(id);
+        entries--;
+    }
+
+    /**
+     * Gives an entry a new id, in place in its cell. Used when the owner of
+     * the ids moves an entry to another slot, as a swap-remove does.
+     *
+     * @param from the entry's current id
+     * @param to   its new id, which must not be in the grid
+     */
+    public void relabel(final int from, final int to) {
+        ensureCapacity(to + 1);
+        final int cell = cellOf[from];
+        cellOf[to] = cell;
+        previous[to] = previous[from];
+        next[to] = next[from];
+        if (previous[to] != NONE) {
+            next[previous[to]] = to;
+        } else {
+            head[cell] = to;
+        }
+        if (next[to] != NONE) {
+            previous[next[to]] = to;
+        }
+        cellOf[from] = NONE;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(head, NONE);
+        Arrays.fill(cellOf, NONE);
+        entries = 0;
+    }
+
+    /**
+     * Finds the entries in every cell an area overlaps. The result is a
+     * superset of the entries inside the area; callers test each candidate
+     * exactly. The grid must not be changed during the call.
+     *
+     * @param minX       the left edge of the area
+     * @param minY       the top edge of the area
+     * @param maxX       the right edge of the area
+     * @param maxY       the bottom edge of the area
+     * @param candidates receives each candidate id once
+     */
+    public void query(final double minX, final double minY, final double maxX, final double maxY,
+                      final IntConsumer candidates) {
+        final int firstColumn = column(minX);
+        final int lastColumn = column(maxX);
+        final int firstRow = row(minY);
+        final int lastRow = row(maxY);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int id = head[row * columns + column]; id != NONE; id = next[id]) {
+                    candidates.accept(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Gets the side of each cell.
+     *
+     * @return the cell size
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    private int cellIndex(final double x, final double y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(final double x) {
+        final int column = (int) (x * inverseCellSize);
+        return column < 0 ? 0 : Math.min(column, columns - 1);
+    }
+
+    private int row(final double y) {
+        final int row = (int) (y * inverseCellSize);
+        return row < 0 ? 0 : Math.min(row, rows - 1);
+    }
+
+    private void link(final int id, final int cell) {
+        cellOf[id] = cell;
+        previous[id] = NONE;
+        next[id] = head[cell];
+        if (head[cell] != NONE) {
+            previous[head[cell]] = id;
+        }
+        head[cell] = id;
+    }
+
+    private void unlink(final int id) {
+        final int cell = cellOf[id];
+        if (previous[id] != NONE) {
+            next[previous[id]] = next[id];
+        } else {
+            head[cell] = next[id];
+        }
+        if (next[id] != NONE) {
+            previous[next[id]] = previous[id];
+        }
+        cellOf[id] = NONE;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= cellOf.length) {
+            return;
+        }
+        final int grown = Math.max(capacity, Math.max(16, cellOf.length * 2));
+        next = Arrays.copyOf(next, grown);
+        previous = Arrays.copyOf(previous, grown);
+        final int old = cellOf.length;
+        cellOf = Arrays.copyOf(cellOf, grown);
+        Arrays.fill(cellOf, old, grown, NONE);
+    }
+}
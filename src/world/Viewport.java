@@ -0,0 +1,92 @@
+package world;
+
+/**
+ * The part of the world that is visible through the camera, in world
+ * coordinates. Renderers use it to skip what cannot be seen.
+ *
+ * The camera pane is translated so that the player stays centred, so the
+ * visible rectangle starts at the negated translate and is as large as the
+ * scene. A viewport is not thread-safe.
+ */
+public final class Viewport {
+
+    private final double padding;
+    private double left = Double.NEGATIVE_INFINITY;
+    private double top = Double.NEGATIVE_INFINITY;
+    private double right = Double.POSITIVE_INFINITY;
+    private double bottom = Double.POSITIVE_INFINITY;
+
+    /**
+     * Creates a viewport that shows everything until it is first updated.
+     *
+     * @param padding how far outside the visible rectangle things still count as visible,
+     *                so that a camera that moves before the next frame is drawn does not
+     *                reveal anything that was skipped
+     */
+    public Viewport(final double padding) {
+        this.padding = padding;
+    }
+
+    /**
+     * Moves the viewport to follow a camera.
+     *
+     * @param translateX the camera pane's x translate
+     * @param translateY the camera pane's y translate
+     * @param width      the width of the scene
+     * @param height     the height of the scene
+     */
+    public void update(final double translateX, final double translateY, final double width, final double height) {
+        left = -translateX - padding;
+        top = -translateY - padding;
+        right = -translateX + width + padding;
+        bottom = -translateY + height + padding;
+    }
+
+    /**
+     * Tests whether a circle can be seen.
+     *
+     * @param x      the x-coordinate of its centre
+     * @param y      the y-coordinate of its centre
+     * @param radius its radius
+     * @return true if any of it is inside the viewport
+     */
+    public boolean isVisible(final double x, final double y, final double radius) {
+        return x + radius >= left && x - radius <= right && y + radius >= top && y - radius <= bottom;
+    }
+
+    /**
+     * Gets the left edge.
+     *
+     * @return the left edge, including the padding
+     */
+    public double getLeft() {
+        return left;
+    }
+
+    /**
+     * Gets the top edge.
+     *
+     * @return the top edge, including the padding
+     */
+    public double getTop() {
+        return top;
+    }
+
+    /**
+     * Gets the right edge.
+     *
+     * @return the right edge, including the padding
+     */
+    public double getRight() {
+        return right;
+    }
+
+    /**
+     * Gets the bottom edge.
+     *
+     * @return the bottom edge, including the padding
+     */
+    public double getBottom() {
+        return bottom;
+    }
+}
@@ -9,6 +9,11 @@ import java.util.List;
 
 /**
  * Represents the world where entities, including the player, bullets, etc., exist.
+ *
+ * Threads: the world is part of the scene graph, so it and its entities
+ * belong to the JavaFX Application Thread once the scene is showing, and
+ * must only be changed there. A simulation running on another thread hands
+ * its state over instead, and the JavaFX thread applies it.
  */
 public final class World {
 